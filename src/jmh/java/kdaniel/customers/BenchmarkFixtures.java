@@ -0,0 +1,25 @@
+package kdaniel.customers;
+
+import kdaniel.customers.model.Customer;
+import kdaniel.customers.model.Role;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Shared inputs for the JMH benchmarks, mirroring application.yaml.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String JWT_SECRET = "33cc31f9a5eaa0402816925ceadfed4eeb19d900e5f55232253158ecd2cf865132e4566adccf4cf8202661088e8b8eeda7c9b46516754a2d42292d1aaa11917b9fd04e2881f86f39722ed5dace7ae204d1050cebb3346ce9f70ef380e351b04c5ffcdf3aa1cf5fe8293ea0fa9ba7129c96e9f92665533d7174b3fc804461db8e0bbfd942ce44ecff86640b2ded10b81c3359b203b53ad493458e86df50e9f5bdd33f182e521f5f659eb3bd624c219bbc220eec04b262a2960a0faa313308ca9f61132749bab77ff83e4b2cef1f83f54a5caabc0dc7fd34d784acdfaabeabf8fe6453469237581b891f6089fc23f6c9ff48820139cb576588be0e3febeb22e639";
+    public static final Long JWT_EXPIRATION = 3600000L;
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Customer customer() {
+        Role role = new Role(1L, "USER");
+        Customer customer = new Customer(1L, "jhorvath", "János Horváth", "password1", (byte) 35, role);
+        customer.setEmail("j.horvath@example.hu");
+        return customer;
+    }
+}
@@ -0,0 +1,79 @@
+package kdaniel.customers.config;
+
+import kdaniel.customers.model.Role;
+import kdaniel.customers.model.UserPrincipal;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Per-call cost of the ADMIN check: the former @PreAuthorize SpEL path,
+ * Spring's stock hasRole URL rule and AdminAuthorizationManager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdminAuthorizationBenchmark {
+
+    /**
+     * Stand-in for an admin endpoint as it was annotated before the URL rules.
+     */
+    public static class AdminEndpoint {
+        @PreAuthorize("hasRole('ADMIN')")
+        public void call() {
+        }
+    }
+
+    private Supplier<Authentication> authentication;
+    private MethodInvocation invocation;
+    private RequestAuthorizationContext requestContext;
+
+    private PreAuthorizeAuthorizationManager preAuthorize;
+    private AuthorityAuthorizationManager<RequestAuthorizationContext> hasRole;
+    private AdminAuthorizationManager admin;
+
+    @Setup
+    public void setUp() throws Exception {
+        UserPrincipal principal = new UserPrincipal("jhorvath", new Role(2L, "ADMIN"));
+        Authentication token = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        authentication = () -> token;
+
+        invocation = new SimpleMethodInvocation(new AdminEndpoint(), AdminEndpoint.class.getMethod("call"));
+        requestContext = new RequestAuthorizationContext(new MockHttpServletRequest("GET", "/customer/1"));
+
+        preAuthorize = new PreAuthorizeAuthorizationManager();
+        hasRole = AuthorityAuthorizationManager.hasRole("ADMIN");
+        admin = new AdminAuthorizationManager();
+    }
+
+    @Benchmark
+    public AuthorizationDecision preAuthorizeSpel() {
+        return preAuthorize.check(authentication, invocation);
+    }
+
+    @Benchmark
+    public AuthorizationDecision urlHasRole() {
+        return hasRole.check(authentication, requestContext);
+    }
+
+    @Benchmark
+    public AuthorizationDecision adminAuthorizationManager() {
+        return admin.check(authentication, requestContext);
+    }
+}
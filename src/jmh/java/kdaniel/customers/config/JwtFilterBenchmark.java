@@ -0,0 +1,57 @@
+package kdaniel.customers.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import kdaniel.customers.BenchmarkFixtures;
+import kdaniel.customers.model.Role;
+import kdaniel.customers.model.UserPrincipal;
+import kdaniel.customers.service.CustomerService;
+import kdaniel.customers.service.JWTService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Per-request cost of JwtFilter with a real JWTService and a mocked user lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private JwtFilter jwtFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain filterChain;
+
+    @Setup
+    public void setUp() {
+        JWTService jwtService = new JWTService(BenchmarkFixtures.JWT_SECRET, BenchmarkFixtures.JWT_EXPIRATION);
+        UserPrincipal principal = new UserPrincipal("jhorvath", new Role(1L, "USER"));
+
+        CustomerService customerService = Mockito.mock(CustomerService.class);
+        Mockito.when(customerService.loadUserByUsername("jhorvath")).thenReturn(principal);
+
+        jwtFilter = new JwtFilter(customerService, jwtService, new ObjectMapper());
+        request = new MockHttpServletRequest("GET", "/customer/averageAge");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken(principal));
+        response = new MockHttpServletResponse();
+        filterChain = (req, res) -> { };
+    }
+
+    @Benchmark
+    public Object doFilterInternal() throws Exception {
+        SecurityContextHolder.clearContext();
+        jwtFilter.doFilterInternal(request, response, filterChain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,49 @@
+package kdaniel.customers.config;
+
+import kdaniel.customers.BenchmarkFixtures;
+import kdaniel.customers.dto.customer.CustomerDTO;
+import kdaniel.customers.dto.customer.EditCustomerDTO;
+import kdaniel.customers.model.Customer;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description DTO mapping cost of the ModelMapper configured in AppConfig.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelMapperBenchmark {
+
+    private ModelMapper modelMapper;
+    private Customer customer;
+    private EditCustomerDTO editCustomerDTO;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new AppConfig().modelMapper();
+        customer = BenchmarkFixtures.customer();
+        editCustomerDTO = new EditCustomerDTO();
+        editCustomerDTO.setId(customer.getId());
+        editCustomerDTO.setFullName("Horváth János");
+    }
+
+    @Benchmark
+    public CustomerDTO customerToDto() {
+        return modelMapper.map(customer, CustomerDTO.class);
+    }
+
+    @Benchmark
+    public Customer editDtoOntoCustomer() {
+        Customer target = BenchmarkFixtures.customer();
+        modelMapper.map(editCustomerDTO, target);
+        return target;
+    }
+}
@@ -0,0 +1,33 @@
+package kdaniel.customers.model;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Cost of UserPrincipal.getAuthorities(), which Spring Security calls several times per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserPrincipalBenchmark {
+
+    private UserPrincipal principal;
+
+    @Setup
+    public void setUp() {
+        principal = new UserPrincipal("jhorvath", new Role(2L, "ADMIN"));
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return principal.getAuthorities();
+    }
+}
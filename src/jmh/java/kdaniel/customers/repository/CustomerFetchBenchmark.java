@@ -0,0 +1,158 @@
+package kdaniel.customers.repository;
+
+import kdaniel.customers.CustomersApplication;
+import kdaniel.customers.config.StatementCounter;
+import kdaniel.customers.dto.customer.AverageAgeDTO;
+import kdaniel.customers.dto.customer.CustomerDTO;
+import kdaniel.customers.model.Customer;
+import kdaniel.customers.model.ResponseModel;
+import kdaniel.customers.service.CustomerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Latency and JDBC statements per call of the customer read paths, on the booted
+ * application over a large synthetic customer table: the paged listing, the average-age stream,
+ * the login lookup and the per-request principal lookup (both natural id, role from the Role cache).
+ * Statements per call are printed after every iteration. For the eager-role baseline, run the same
+ * benchmark with Customer.role switched to FetchType.EAGER; the results of both are in the README.
+ * Run with -Pjmh -Djmh.include=CustomerFetchBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CustomerFetchBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"100000", "1000000"})
+    public int customers;
+
+    // Without the second-level cache every role reference is a database round trip
+    @Param({"true", "false"})
+    public boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private CustomerRepository customerRepository;
+    private CustomerService customerService;
+
+    private long calls;
+    private long statements;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CustomersApplication.class)
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=WARN",
+                        "db.url=jdbc:h2:mem:fetch-bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                        "spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache)
+                .run();
+        customerRepository = context.getBean(CustomerRepository.class);
+        customerService = context.getBean(CustomerService.class);
+        load(context.getBean(JdbcTemplate.class), customers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounts() {
+        calls = 0;
+        statements = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportCounts() {
+        System.out.printf("%n[customers=%d secondLevelCache=%b] %.2f statements per call%n",
+                customers, secondLevelCache, calls == 0 ? 0.0 : (double) statements / calls);
+    }
+
+    /**
+     * GET /customer: one page, mapped to DTOs.
+     */
+    @Benchmark
+    public Page<CustomerDTO> pagedListing() {
+        int page = ThreadLocalRandom.current().nextInt(customers / PAGE_SIZE);
+        return counted(() -> customerService.getAllCustomersPaged(PageRequest.of(page, PAGE_SIZE)).getData());
+    }
+
+    /**
+     * GET /customer/averageAge: streams the whole table.
+     */
+    @Benchmark
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ResponseModel<AverageAgeDTO> averageAge() {
+        return counted(customerService::calculateAverageAge);
+    }
+
+    /**
+     * POST /auth/login: the customer and its role, from the second-level cache once warm.
+     */
+    @Benchmark
+    public Customer loginLookup() {
+        String username = "fetch" + ThreadLocalRandom.current().nextInt(customers);
+        return counted(() -> customerRepository.findCachedWithRoleByUsername(username).orElseThrow());
+    }
+
+    /**
+     * Every authenticated request: the principal, with its role resolved.
+     */
+    @Benchmark
+    public UserDetails principalLookup() {
+        String username = "fetch" + ThreadLocalRandom.current().nextInt(customers);
+        return counted(() -> {
+            UserDetails user = customerService.loadUserByUsername(username);
+            user.getAuthorities();
+            return user;
+        });
+    }
+
+    private <T> T counted(Supplier<T> call) {
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            T result = call.get();
+            calls++;
+            statements += scope.count();
+            return result;
+        }
+    }
+
+    private static void load(JdbcTemplate jdbcTemplate, int customers) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < customers; i++) {
+            String username = "fetch" + i;
+            String email = username + "@bench.example";
+            // Both seeded roles, so an eager role costs more than one lookup per page
+            batch.add(new Object[]{username, username, "$2a$10$abcdefghijklmnopqrstuuJ3q2bOq3y2d1k5x3VQk3Jq3Jq3Jq3Jq",
+                    "Fetch Customer " + i, email, email, 10 + i % 60, 1 + i % 2});
+            if (batch.size() == BATCH_SIZE || i == customers - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO customer (username, normalized_username, password, full_name, email, "
+                        + "normalized_email, age, role_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
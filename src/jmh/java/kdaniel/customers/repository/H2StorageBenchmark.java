@@ -0,0 +1,211 @@
+package kdaniel.customers.repository;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Insert and scan throughput of the customer table, in-memory H2 vs. the file-backed
+ * h2-file profile settings, on the schema created by the Flyway migrations.
+ * Loading and scanning 10M rows takes minutes and several GB of heap in mem mode; narrow the run with
+ * -Djmh.include=H2StorageBenchmark. Heap in use and the database file size are printed after each load.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class H2StorageBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * One database in the chosen mode, migrated by Flyway; the subclasses decide when it is opened and filled.
+     * The annotation is needed for the @Param fields; only the subclasses are used as state.
+     */
+    @State(Scope.Benchmark)
+    public abstract static class Storage {
+
+        @Param({"mem", "file"})
+        public String mode;
+
+        @Param({"1000000", "10000000"})
+        public int customers;
+
+        // Mirrors the h2-file profile in application.yaml
+        @Param({"65536"})
+        public int cacheSizeKb;
+
+        Path directory;
+        Connection connection;
+
+        void open() throws Exception {
+            String url;
+            if (mode.equals("mem")) {
+                url = "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+            } else {
+                directory = Files.createTempDirectory("h2-bench");
+                url = "jdbc:h2:file:" + directory.resolve("customers") + ";DB_CLOSE_DELAY=-1;CACHE_SIZE=" + cacheSizeKb
+                        + ";WRITE_DELAY=500;AUTO_COMPACT_FILL_RATE=90;MAX_COMPACT_TIME=2000";
+            }
+            // H2 would otherwise answer a repeated query on an unchanged table with its previous result,
+            // and every scan after the first would measure nothing
+            url += ";OPTIMIZE_REUSE_RESULTS=FALSE";
+            Flyway.configure().dataSource(url, "sa", "").load().migrate();
+            connection = DriverManager.getConnection(url, "sa", "");
+            connection.setAutoCommit(false);
+        }
+
+        void close() throws Exception {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SHUTDOWN");
+            }
+            connection.close();
+            if (directory != null) {
+                try (Stream<Path> files = Files.walk(directory)) {
+                    files.sorted(Comparator.reverseOrder()).forEach(H2StorageBenchmark::delete);
+                }
+            }
+        }
+
+        void report(String phase) throws IOException {
+            Runtime runtime = Runtime.getRuntime();
+            System.gc();
+            long heapMb = (runtime.totalMemory() - runtime.freeMemory()) >> 20;
+            long diskMb = 0;
+            if (directory != null) {
+                try (Stream<Path> files = Files.list(directory)) {
+                    diskMb = files.mapToLong(H2StorageBenchmark::size).sum() >> 20;
+                }
+            }
+            System.out.printf("%n[%s %s customers=%d] heap used %d MB, database file %d MB%n",
+                    phase, mode, customers, heapMb, diskMb);
+        }
+    }
+
+    /**
+     * A freshly migrated, empty database per iteration.
+     */
+    @State(Scope.Benchmark)
+    public static class Empty extends Storage {
+
+        @Setup(Level.Iteration)
+        public void setUp() throws Exception {
+            open();
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws Exception {
+            report("after insert");
+            close();
+        }
+    }
+
+    /**
+     * A database loaded once per trial.
+     */
+    @State(Scope.Benchmark)
+    public static class Loaded extends Storage {
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            open();
+            load(connection, customers);
+            report("loaded");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            close();
+        }
+    }
+
+    @Benchmark
+    public int insert(Empty storage) throws SQLException {
+        return load(storage.connection, storage.customers);
+    }
+
+    /**
+     * Full scan, the access pattern of /customer/averageAge.
+     */
+    @Benchmark
+    @Measurement(iterations = 5)
+    @Warmup(iterations = 1)
+    public double scanAverageAge(Loaded storage) throws SQLException {
+        try (Statement statement = storage.connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT AVG(CAST(age AS DOUBLE)) FROM customer")) {
+            rs.next();
+            return rs.getDouble(1);
+        }
+    }
+
+    /**
+     * Index seek, the access pattern of login and of every authenticated request.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Measurement(iterations = 5, time = 1)
+    @Warmup(iterations = 2, time = 1)
+    public boolean lookupByUsername(Loaded storage) throws SQLException {
+        String username = "bench" + ThreadLocalRandom.current().nextInt(storage.customers);
+        try (PreparedStatement statement = storage.connection.prepareStatement(
+                "SELECT id FROM customer WHERE normalized_username = ?")) {
+            statement.setString(1, username);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static int load(Connection connection, int customers) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO customer (username, normalized_username, password, full_name, email, normalized_email, age, role_id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, 1)")) {
+            for (int i = 0; i < customers; i++) {
+                String username = "bench" + i;
+                String email = username + "@bench.example";
+                statement.setString(1, username);
+                statement.setString(2, username);
+                statement.setString(3, "$2a$10$abcdefghijklmnopqrstuuJ3q2bOq3y2d1k5x3VQk3Jq3Jq3Jq3Jq");
+                statement.setString(4, "Bench Customer " + i);
+                statement.setString(5, email);
+                statement.setString(6, email);
+                statement.setInt(7, 10 + i % 60);
+                statement.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == customers - 1) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        return customers;
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.delete(path);
+        } catch (IOException ignored) {
+            // Best effort: the directory is a temp dir anyway
+        }
+    }
+}
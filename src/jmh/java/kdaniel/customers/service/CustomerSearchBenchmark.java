@@ -0,0 +1,66 @@
+package kdaniel.customers.service;
+
+import kdaniel.customers.dto.customer.CustomerSearchDTO;
+import kdaniel.customers.model.Customer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Query latency of CustomerSearchIndex over a synthetic customer base.
+ * Run with -Pjmh -Djmh.include=CustomerSearchBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CustomerSearchBenchmark {
+
+    private static final String[] FIRST = {"Anna", "Bence", "Csaba", "Dóra", "Eszter", "Ferenc", "Gábor", "Hanna", "István", "Judit"};
+    private static final String[] LAST = {"Horváth", "Kovács", "Szabó", "Tóth", "Varga", "Kiss", "Molnár", "Németh", "Farkas", "Balogh"};
+
+    @Param({"100000", "1000000"})
+    public int customers;
+
+    private CustomerSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new CustomerSearchIndex(null);
+        for (int i = 0; i < customers; i++) {
+            String first = FIRST[i % FIRST.length];
+            String last = LAST[(i / FIRST.length) % LAST.length];
+            index.put(Customer.builder()
+                    .id((long) i + 1)
+                    .username(first.toLowerCase() + i)
+                    .fullName(last + " " + first)
+                    .email(first.toLowerCase() + "." + i + "@example.com")
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<CustomerSearchDTO> shortPrefix() {
+        return index.search("a", 10);
+    }
+
+    @Benchmark
+    public List<CustomerSearchDTO> exactUsername() {
+        return index.search("judit" + (customers - 1), 10);
+    }
+
+    @Benchmark
+    public List<CustomerSearchDTO> twoWords() {
+        return index.search("kiss esz", 10);
+    }
+
+    @Benchmark
+    public List<CustomerSearchDTO> typo() {
+        return index.search("horvatj", 10);
+    }
+}
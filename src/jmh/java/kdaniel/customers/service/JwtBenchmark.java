@@ -0,0 +1,48 @@
+package kdaniel.customers.service;
+
+import kdaniel.customers.BenchmarkFixtures;
+import kdaniel.customers.model.Role;
+import kdaniel.customers.model.UserPrincipal;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Token signing and parsing cost of JWTService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JWTService jwtService;
+    private UserPrincipal principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JWTService(BenchmarkFixtures.JWT_SECRET, BenchmarkFixtures.JWT_EXPIRATION);
+        principal = new UserPrincipal("jhorvath", new Role(1L, "USER"));
+        token = jwtService.generateToken(principal);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(principal);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, principal);
+    }
+}
@@ -0,0 +1,97 @@
+package kdaniel.customers.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description AIMD concurrency limit.
+ * The limit grows by roughly one per limit-many fast completions while it is actually being used,
+ * and is multiplied by the backoff ratio when a request is slower than the latency threshold or fails.
+ * Requests that were already running at the last decrease are not counted again, so one burst of slow
+ * completions backs off once instead of once per request. Requests above the limit are rejected
+ * immediately instead of queueing.
+ * Lock-free: the in-flight count, the limit (stored as double bits) and the decrease time are updated with CAS.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos) {
+        this(initialLimit, minLimit, maxLimit, latencyThresholdNanos, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos, LongSupplier nanoClock) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.nanoClock = nanoClock;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(Math.max(minLimit, Math.min(maxLimit, initialLimit))));
+        this.lastDecreaseNanos = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * @Return true if the request may proceed; the caller must then call release exactly once.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @Description Ends a request and adapts the limit to how it went.
+     * @Param rttNanos How long the request took, measured with System.nanoTime.
+     * @Param failed Whether the request ended with a server error.
+     */
+    public void release(long rttNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (failed || rttNanos > latencyThresholdNanos) {
+            long now = nanoClock.getAsLong();
+            long lastDecrease = lastDecreaseNanos.get();
+            // A request that started before the last decrease was admitted under the old limit and has already
+            // been answered by it; of several concurrent ones only the CAS winner decreases
+            if (now - rttNanos - lastDecrease >= 0 && lastDecreaseNanos.compareAndSet(lastDecrease, now)) {
+                update(limit -> Math.max(minLimit, limit * BACKOFF_RATIO));
+            }
+        } else if (inFlightBefore * 2 >= getLimit()) {
+            // Only grow while the limit is actually the constraint, otherwise it drifts to the maximum
+            update(limit -> Math.min(maxLimit, limit + 1.0 / limit));
+        }
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void update(DoubleUnaryOperator function) {
+        while (true) {
+            long bits = limitBits.get();
+            long updated = Double.doubleToRawLongBits(function.applyAsDouble(Double.longBitsToDouble(bits)));
+            if (bits == updated || limitBits.compareAndSet(bits, updated)) {
+                return;
+            }
+        }
+    }
+}
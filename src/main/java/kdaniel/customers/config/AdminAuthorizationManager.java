@@ -0,0 +1,56 @@
+package kdaniel.customers.config;
+
+import kdaniel.customers.model.UserPrincipal;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.function.Supplier;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description URL-level replacement for @PreAuthorize("hasRole('ADMIN')").
+ * Principals created by this application answer from their shared authority list; anything else
+ * (e.g. test users) is checked by scanning the granted authorities of the authentication. Returns
+ * shared decision instances.
+ */
+public final class AdminAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return decide(authentication);
+    }
+
+    // Still abstract in Spring Security 6.4, but the filter chain only calls authorize
+    @Override
+    @Deprecated
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return decide(authentication);
+    }
+
+    private static AuthorizationDecision decide(Supplier<Authentication> authentication) {
+        return isAdmin(authentication.get()) ? GRANTED : DENIED;
+    }
+
+    static boolean isAdmin(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.isAdmin();
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (UserPrincipal.ADMIN_AUTHORITY.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
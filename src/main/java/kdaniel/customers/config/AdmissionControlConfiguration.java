@@ -0,0 +1,57 @@
+package kdaniel.customers.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Registers one admission control filter per route group, ordered just before the
+ * Spring Security filter chain so shed requests never reach JWT parsing, the database or BCrypt.
+ * Each group is tuned under admission.<group>.* in application.yaml.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "admission.enabled", havingValue = "true")
+public class AdmissionControlConfiguration {
+
+    private static final int ORDER = SecurityProperties.DEFAULT_FILTER_ORDER - 1;
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> authAdmissionControlFilter(Environment environment,
+                                                                                      MeterRegistry meterRegistry) {
+        return registration("auth", environment, meterRegistry, "/auth/*");
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> customerAdmissionControlFilter(Environment environment,
+                                                                                          MeterRegistry meterRegistry) {
+        return registration("customer", environment, meterRegistry, "/customer", "/customer/*");
+    }
+
+    private static FilterRegistrationBean<AdmissionControlFilter> registration(String group, Environment environment,
+                                                                               MeterRegistry meterRegistry,
+                                                                               String... urlPatterns) {
+        String prefix = "admission." + group + ".";
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                environment.getRequiredProperty(prefix + "initial-limit", Integer.class),
+                environment.getRequiredProperty(prefix + "min-limit", Integer.class),
+                environment.getRequiredProperty(prefix + "max-limit", Integer.class),
+                environment.getRequiredProperty(prefix + "latency-threshold", Duration.class).toNanos());
+
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionControlFilter(group, limit, meterRegistry));
+        registration.setName(group + "AdmissionControlFilter");
+        registration.addUrlPatterns(urlPatterns);
+        registration.setOrder(ORDER);
+        return registration;
+    }
+}
@@ -0,0 +1,70 @@
+package kdaniel.customers.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Sheds load for one route group before it reaches the security filter chain.
+ * Requests above the group's adaptive concurrency limit get 503 with Retry-After immediately,
+ * instead of queueing in Tomcat while the database or BCrypt is saturated.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final byte[] OVERLOADED = "{\"error\":\"Service overloaded\"}".getBytes(StandardCharsets.UTF_8);
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final Counter rejected;
+
+    public AdmissionControlFilter(String group, AdaptiveConcurrencyLimit limit, MeterRegistry registry) {
+        this.limit = limit;
+        this.rejected = Counter.builder("customers.admission.rejected")
+                .description("Requests shed by admission control")
+                .tag("group", group)
+                .register(registry);
+        Gauge.builder("customers.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("group", group)
+                .register(registry);
+        Gauge.builder("customers.admission.in_flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests currently admitted")
+                .tag("group", group)
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!limit.tryAcquire()) {
+            rejected.increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(OVERLOADED.length);
+            response.getOutputStream().write(OVERLOADED);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        } finally {
+            limit.release(System.nanoTime() - start, failed);
+        }
+    }
+}
@@ -1,18 +1,24 @@
 package kdaniel.customers.config;
 
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 /**
  * @Author Kiszel Dániel
  * @Date 2025-04-26
  * @Description Application-wide configuration class.
- * Provides beans for ModelMapper (for DTO mapping) and BCryptPasswordEncoder (for password hashing).
+ * Provides beans for ModelMapper (for DTO mapping), BCryptPasswordEncoder (for password hashing)
+ * and the TimedAspect that backs the @Timed annotations on the services.
+ * Also enables @Scheduled maintenance jobs.
  */
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
     /**
@@ -28,9 +34,18 @@ public class AppConfig {
 
     /**
      * @Description Provides a BCryptPasswordEncoder bean for hashing passwords securely.
+     * Every encode and match is timed in the "customers.bcrypt" metric.
      */
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedBCryptPasswordEncoder(meterRegistry);
+    }
+
+    /**
+     * @Description Enables @Timed on Spring beans, so service methods are recorded as timers.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
     }
 }
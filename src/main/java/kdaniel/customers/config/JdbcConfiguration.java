@@ -1,12 +1,18 @@
 package kdaniel.customers.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 
 @Configuration
 public class JdbcConfiguration {
@@ -23,18 +29,97 @@ public class JdbcConfiguration {
     @Value("${db.driver}")
     private String driver;
 
+    @Value("${db.slow-query-threshold}")
+    private Duration slowQueryThreshold;
+
+    @Value("${db.virtual-threads.max-connections}")
+    private int virtualThreadMaxConnections;
+
+    @Value("${db.virtual-threads.acquire-timeout}")
+    private Duration virtualThreadAcquireTimeout;
+
+    @Value("${db.replica.enabled}")
+    private boolean replicaEnabled;
+
+    @Value("${db.replica.url}")
+    private String replicaUrl;
+
+    @Value("${db.replica.max-lag}")
+    private Duration replicaMaxLag;
+
+    /**
+     * @Description Provides the application DataSource. Without a replica this is the primary itself.
+     * With db.replica.enabled, connections are fetched lazily so the transaction's read-only flag is
+     * known first: @Transactional(readOnly = true) work goes to the replica while its lag is within
+     * db.replica.max-lag, everything else to the primary.
+     */
     @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(driver);
-        dataSource.setUrl(url);
-        dataSource.setUsername(username);
-        dataSource.setPassword(password);
-        return dataSource;
+    public DataSource dataSource(MeterRegistry meterRegistry, Environment environment) {
+        DataSource primary = primaryDataSource(meterRegistry, environment);
+        if (!replicaEnabled) {
+            return primary;
+        }
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(new ReplicaRoutingDataSource(
+                primary, replicaDataSource(meterRegistry, environment), replicaLagMonitor(meterRegistry), replicaMaxLag, meterRegistry));
+        return routing;
+    }
+
+    /**
+     * @Description The writable primary. Not injectable by type; the application uses dataSource().
+     */
+    @Bean(autowireCandidate = false)
+    public DataSource primaryDataSource(MeterRegistry meterRegistry, Environment environment) {
+        return connect(url, meterRegistry, environment);
+    }
+
+    @Bean(autowireCandidate = false)
+    @ConditionalOnProperty(name = "db.replica.enabled", havingValue = "true")
+    public DataSource replicaDataSource(MeterRegistry meterRegistry, Environment environment) {
+        return connect(replicaUrl, meterRegistry, environment);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "db.replica.enabled", havingValue = "true")
+    public ReplicaLagMonitor replicaLagMonitor(MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(meterRegistry);
+    }
+
+    /**
+     * @Description Keeps a local H2 replica in sync with the primary; only for running without real replication.
+     */
+    @Bean
+    @ConditionalOnProperty(name = {"db.replica.enabled", "db.replica.stand-in.enabled"}, havingValue = "true")
+    public ReplicationStandIn replicationStandIn(MeterRegistry meterRegistry, Environment environment) {
+        return new ReplicationStandIn(primaryDataSource(meterRegistry, environment),
+                replicaDataSource(meterRegistry, environment), replicaLagMonitor(meterRegistry));
     }
 
     @Bean
     public JdbcTemplate jdbcTemplate(DataSource dataSource) {
         return new JdbcTemplate(dataSource);
     }
+
+    /**
+     * When requests run on virtual threads, concurrent connections are capped so the synchronized
+     * H2 driver cannot pin every carrier thread.
+     */
+    private DataSource connect(String jdbcUrl, MeterRegistry meterRegistry, Environment environment) {
+        DriverManagerDataSource driverManagerDataSource = new DriverManagerDataSource();
+        driverManagerDataSource.setDriverClassName(driver);
+        driverManagerDataSource.setUrl(jdbcUrl);
+        driverManagerDataSource.setUsername(username);
+        driverManagerDataSource.setPassword(password);
+
+        DataSource dataSource = driverManagerDataSource;
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // On two or more cores one carrier (there is one per core) stays free of JDBC work; a single core
+            // still needs its one connection, so there the cap cannot leave a carrier free
+            int maxConnections = virtualThreadMaxConnections > 0
+                    ? virtualThreadMaxConnections
+                    : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            dataSource = new ConnectionLimitingDataSource(dataSource, maxConnections, virtualThreadAcquireTimeout);
+        }
+        return new StatementTimingDataSource(dataSource, meterRegistry, slowQueryThreshold);
+    }
 }
@@ -0,0 +1,27 @@
+package kdaniel.customers.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Helpers shared by the JDK dynamic proxies that wrap JDBC connections and statements.
+ */
+final class JdbcProxies {
+
+    private JdbcProxies() {
+    }
+
+    /**
+     * Invokes the method on the real JDBC object, rethrowing the original exception instead of
+     * the reflective wrapper, so callers see the same SQLException as without the proxy.
+     */
+    static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
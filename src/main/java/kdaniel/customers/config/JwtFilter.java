@@ -1,14 +1,18 @@
 package kdaniel.customers.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Metrics;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import kdaniel.customers.service.CustomerService;
 import kdaniel.customers.service.JWTService;
-import kdaniel.customers.util.FieldValidationException;
+import kdaniel.customers.util.TokenFailureLog;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,9 +22,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
 
 /**
  * @Author Kiszel Dániel
@@ -28,16 +30,22 @@ import java.util.Map;
  * @Description JwtFilter for authenticating requests using JWT tokens.
  * Intercepts requests to validate the JWT and set the authentication context.
  */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
+    private static final TokenFailureLog FAILURES =
+            new TokenFailureLog(JwtFilter.class, Duration.ofSeconds(10), Metrics.globalRegistry);
+
     private final JWTService jwtService;
     private final CustomerService customerService;
+    private final SecurityErrorBodies errorBodies;
 
     @Autowired
-    public JwtFilter(CustomerService customerService, JWTService jwtService) {
+    public JwtFilter(CustomerService customerService, JWTService jwtService, ObjectMapper objectMapper) {
         this.customerService = customerService;
         this.jwtService = jwtService;
+        this.errorBodies = new SecurityErrorBodies(objectMapper);
     }
 
     /**
@@ -50,7 +58,7 @@ public class JwtFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
+        final Claims claims;
 
         // If the Authorization header is missing or does not start with "Bearer ", continue the filter chain
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -59,38 +67,48 @@ public class JwtFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+
+        // Reject tokens that cannot be ours before any HMAC work or database lookup
+        TokenFailureLog.Reason rejected = JwtPreValidator.check(jwt);
+        if (rejected != null) {
+            FAILURES.record(rejected, "pre-validation failed");
+            errorBodies.invalidToken(response);
+            return;
+        }
+
+        // Parsed once; the username and the validity check below both use these claims
+        try {
+            claims = jwtService.extractAllClaims(jwt);
+        } catch (JwtException | IllegalArgumentException ex) {
+            // Already counted and logged by JWTService
+            errorBodies.invalidToken(response);
+            return;
+        }
+        final String username = claims == null ? null : claims.getSubject();
 
         // If the username is valid and the authentication context is not already set
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails;
             try {
-                UserDetails userDetails = customerService.loadUserByUsername(username);
-                if(userDetails == null) throw new FieldValidationException("Username","Username not found");
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+                userDetails = customerService.loadUserByUsername(username);
             } catch (UsernameNotFoundException ex) {
+                userDetails = null;
+            }
+            if (userDetails == null) {
                 // If the username is not found, respond with an error
-                Map<String, String> errors = new HashMap<>();
-                errors.put("username", ex.getMessage());
-
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                response.setContentType("application/json");
-                response.setCharacterEncoding("UTF-8");
-
-                String json = new ObjectMapper().writeValueAsString(errors);
-                PrintWriter writer = response.getWriter();
-                writer.write(json);
-                writer.flush();
+                errorBodies.usernameNotFound(response);
                 return;
             }
+            if (jwtService.isTokenValid(claims, userDetails)) {
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(
+                                userDetails,
+                                null,
+                                userDetails.getAuthorities()
+                        );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
         }
 
         // Continue the filter chain for other filters or final handling
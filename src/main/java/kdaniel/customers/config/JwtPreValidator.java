@@ -0,0 +1,90 @@
+package kdaniel.customers.config;
+
+import kdaniel.customers.util.TokenFailureLog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Cheap structural check of a bearer token before any HMAC work.
+ * Verifies length bounds, the three-segment layout, the base64url alphabet, the HS256 signature
+ * length and the header "alg". Tokens issued by JWTService pass on the fast path without decoding.
+ */
+public final class JwtPreValidator {
+
+    // Base64url of {"alg":"HS256"}, the exact header JWTService writes
+    private static final String HS256_HEADER = "eyJhbGciOiJIUzI1NiJ9";
+    // A 32-byte HMAC-SHA256 signature is 43 base64url characters without padding
+    private static final int HS256_SIGNATURE_LENGTH = 43;
+    private static final int MIN_LENGTH = HS256_HEADER.length() + HS256_SIGNATURE_LENGTH + 3;
+    private static final int MAX_LENGTH = 4096;
+    private static final int MAX_HEADER_LENGTH = 256;
+
+    private static final boolean[] BASE64URL = new boolean[128];
+
+    static {
+        for (char c = 'A'; c <= 'Z'; c++) BASE64URL[c] = true;
+        for (char c = 'a'; c <= 'z'; c++) BASE64URL[c] = true;
+        for (char c = '0'; c <= '9'; c++) BASE64URL[c] = true;
+        BASE64URL['-'] = true;
+        BASE64URL['_'] = true;
+    }
+
+    private JwtPreValidator() {
+    }
+
+    /**
+     * @Description Checks the shape of the token.
+     * @Param token The raw token without the "Bearer " prefix.
+     * @Return null if the token may be parsed, otherwise the reason it was rejected.
+     */
+    public static TokenFailureLog.Reason check(String token) {
+        int length = token.length();
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            return TokenFailureLog.Reason.MALFORMED;
+        }
+
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return TokenFailureLog.Reason.MALFORMED;
+                }
+            } else if (c >= 128 || !BASE64URL[c]) {
+                return TokenFailureLog.Reason.MALFORMED;
+            }
+        }
+        if (firstDot <= 0 || secondDot <= firstDot + 1 || secondDot == length - 1) {
+            return TokenFailureLog.Reason.MALFORMED;
+        }
+        if (length - secondDot - 1 != HS256_SIGNATURE_LENGTH) {
+            return TokenFailureLog.Reason.UNSUPPORTED;
+        }
+
+        if (firstDot == HS256_HEADER.length() && token.startsWith(HS256_HEADER)) {
+            return null;
+        }
+        return isHs256Header(token, firstDot) ? null : TokenFailureLog.Reason.UNSUPPORTED;
+    }
+
+    private static boolean isHs256Header(String token, int headerEnd) {
+        if (headerEnd > MAX_HEADER_LENGTH) {
+            return false;
+        }
+        String header;
+        try {
+            header = new String(Base64.getUrlDecoder().decode(token.substring(0, headerEnd)), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return header.replaceAll("\\s+", "").contains("\"alg\":\"HS256\"");
+    }
+}
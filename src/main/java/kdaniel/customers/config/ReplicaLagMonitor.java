@@ -0,0 +1,46 @@
+package kdaniel.customers.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Tracks how far the read replica is behind the primary.
+ * The replication process reports the primary time its latest applied snapshot was taken; the lag is
+ * the age of that snapshot. Until the first report the replica counts as infinitely behind.
+ */
+public class ReplicaLagMonitor {
+
+    private final Clock clock;
+    private volatile Instant replicatedAt;
+
+    public ReplicaLagMonitor(MeterRegistry registry) {
+        this(registry, Clock.systemUTC());
+    }
+
+    ReplicaLagMonitor(MeterRegistry registry, Clock clock) {
+        this.clock = clock;
+        Gauge.builder("customers.datasource.replica.lag", this, monitor -> monitor.lag().toMillis() / 1000.0)
+                .description("Age of the data on the read replica")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    /**
+     * Records that the replica now contains everything the primary had at the given time.
+     */
+    public void replicated(Instant snapshotTakenAt) {
+        replicatedAt = snapshotTakenAt;
+    }
+
+    public Duration lag() {
+        Instant at = replicatedAt;
+        // Reported as a day rather than a "forever" value that would wreck the gauge
+        return at == null ? Duration.ofDays(1) : Duration.between(at, clock.instant());
+    }
+}
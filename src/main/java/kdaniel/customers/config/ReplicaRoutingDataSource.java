@@ -0,0 +1,55 @@
+package kdaniel.customers.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Target for read-only transactions: the replica while it is fresh enough, otherwise
+ * the primary. Installed as the read-only DataSource of a LazyConnectionDataSourceProxy, so only
+ * connections of @Transactional(readOnly = true) calls come through here.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Duration maxLag;
+    private final Counter replicaReads;
+    private final Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    Duration maxLag, MeterRegistry registry) {
+        this.lagMonitor = lagMonitor;
+        this.maxLag = maxLag;
+        this.replicaReads = reads(registry, REPLICA);
+        this.fallbackReads = reads(registry, PRIMARY);
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (lagMonitor.lag().compareTo(maxLag) <= 0) {
+            replicaReads.increment();
+            return REPLICA;
+        }
+        fallbackReads.increment();
+        return PRIMARY;
+    }
+
+    private static Counter reads(MeterRegistry registry, String target) {
+        return Counter.builder("customers.datasource.readonly.connections")
+                .description("Connections of read-only transactions by the database they went to")
+                .tag("target", target)
+                .register(registry);
+    }
+}
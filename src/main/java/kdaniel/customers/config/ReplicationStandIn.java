@@ -0,0 +1,119 @@
+package kdaniel.customers.config;
+
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Replication stand-in for running a read replica locally on a second H2 instance.
+ * The replica gets the schema from the same Flyway migrations; every interval the replicated tables
+ * are copied from one consistent read of the primary in a single replica transaction. The lag is the
+ * age of the last applied copy, so a slow or failing copy pushes reads back to the primary.
+ * Meant for development and tests only; the full copy grows with the data.
+ */
+public class ReplicationStandIn {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationStandIn.class);
+
+    // Parents before children; deletes run in reverse
+    private static final List<String> TABLES = List.of("role", "customer", "refresh_token", "revoked_token");
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicationStandIn(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        Flyway.configure().dataSource(replica).locations("classpath:db/migration").load().migrate();
+    }
+
+    @Scheduled(fixedDelayString = "${db.replica.stand-in.interval}")
+    public void replicate() {
+        try {
+            lagMonitor.replicated(copy());
+        } catch (SQLException e) {
+            log.atWarn().setCause(e).log("Replica sync failed; reads fall back to the primary once the lag exceeds the limit");
+        }
+    }
+
+    private Instant copy() throws SQLException {
+        List<List<Object[]>> rows = new ArrayList<>();
+        List<List<String>> columns = new ArrayList<>();
+        Instant snapshotTakenAt;
+
+        try (Connection source = primary.getConnection()) {
+            source.setAutoCommit(false);
+            source.setReadOnly(true);
+            source.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            snapshotTakenAt = Instant.now();
+            for (String table : TABLES) {
+                try (Statement statement = source.createStatement();
+                     ResultSet rs = statement.executeQuery("SELECT * FROM " + table)) {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    List<String> names = new ArrayList<>();
+                    for (int i = 1; i <= meta.getColumnCount(); i++) {
+                        names.add(meta.getColumnName(i));
+                    }
+                    List<Object[]> tableRows = new ArrayList<>();
+                    while (rs.next()) {
+                        Object[] row = new Object[names.size()];
+                        for (int i = 0; i < row.length; i++) {
+                            row[i] = rs.getObject(i + 1);
+                        }
+                        tableRows.add(row);
+                    }
+                    columns.add(names);
+                    rows.add(tableRows);
+                }
+            }
+            source.commit();
+        }
+
+        try (Connection target = replica.getConnection()) {
+            target.setAutoCommit(false);
+            try {
+                for (int t = TABLES.size() - 1; t >= 0; t--) {
+                    try (Statement statement = target.createStatement()) {
+                        statement.executeUpdate("DELETE FROM " + TABLES.get(t));
+                    }
+                }
+                for (int t = 0; t < TABLES.size(); t++) {
+                    insert(target, TABLES.get(t), columns.get(t), rows.get(t));
+                }
+                target.commit();
+            } catch (SQLException | RuntimeException e) {
+                target.rollback();
+                throw e;
+            }
+        }
+        return snapshotTakenAt;
+    }
+
+    private static void insert(Connection target, String table, List<String> names, List<Object[]> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", names) + ") VALUES ("
+                + String.join(", ", names.stream().map(name -> "?").toList()) + ")";
+        try (PreparedStatement statement = target.prepareStatement(sql)) {
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    statement.setObject(i + 1, row[i]);
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package kdaniel.customers.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Error payloads of the security layer, serialized once with the application's ObjectMapper.
+ * Rejecting a request only copies a shared byte array to the response, so a burst of bad
+ * credentials or tokens does not allocate JSON trees, strings or mappers per request.
+ */
+public final class SecurityErrorBodies {
+
+    private final byte[] usernameNotFound;
+    private final byte[] invalidToken;
+    private final byte[] unauthorized;
+    private final byte[] forbidden;
+
+    public SecurityErrorBodies(ObjectMapper objectMapper) {
+        this.usernameNotFound = encode(objectMapper, "username", "Username not found");
+        this.invalidToken = encode(objectMapper, "token", "Invalid token");
+        this.unauthorized = encode(objectMapper, "error", "Unauthorized");
+        this.forbidden = encode(objectMapper, "error", "Forbidden");
+    }
+
+    public void usernameNotFound(HttpServletResponse response) throws IOException {
+        write(response, HttpServletResponse.SC_UNAUTHORIZED, usernameNotFound);
+    }
+
+    public void invalidToken(HttpServletResponse response) throws IOException {
+        write(response, HttpServletResponse.SC_UNAUTHORIZED, invalidToken);
+    }
+
+    public void unauthorized(HttpServletResponse response) throws IOException {
+        write(response, HttpServletResponse.SC_UNAUTHORIZED, unauthorized);
+    }
+
+    public void forbidden(HttpServletResponse response) throws IOException {
+        write(response, HttpServletResponse.SC_FORBIDDEN, forbidden);
+    }
+
+    private static void write(HttpServletResponse response, int status, byte[] body) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static byte[] encode(ObjectMapper objectMapper, String field, String message) {
+        try {
+            return objectMapper.writeValueAsBytes(Map.of(field, message));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package kdaniel.customers.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -19,16 +22,18 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  * Defines which endpoints are public and secures the rest using JWT authentication.
  */
 
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Configuration
 @EnableWebSecurity
-@EnableMethodSecurity
 public class SecurityFilterConfiguration {
 
     private final JwtFilter jwtFilter;
+    private final SecurityErrorBodies errorBodies;
 
     @Autowired
-    public SecurityFilterConfiguration(JwtFilter jwtFilter) {
+    public SecurityFilterConfiguration(JwtFilter jwtFilter, ObjectMapper objectMapper) {
         this.jwtFilter = jwtFilter;
+        this.errorBodies = new SecurityErrorBodies(objectMapper);
     }
 
     /**
@@ -43,14 +48,26 @@ public class SecurityFilterConfiguration {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(
                         authorize -> authorize
-                                .requestMatchers("/auth/login", "/auth/register").permitAll()
+                                // Long-poll and SSE responses finish on an async dispatch of a request that was already authorized
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                                .requestMatchers("/auth/login", "/auth/register", "/auth/refresh").permitAll()
                                 // Allow access to H2 database console without authentication
                                 .requestMatchers("/h2-console/**").permitAll()
                                 .requestMatchers("/member/**").permitAll()
+                                // Health checks need no JWT; the metrics expose SQL text and load figures, so scraping is ADMIN only
+                                .requestMatchers("/actuator/health").permitAll()
+                                .requestMatchers("/actuator/prometheus").access(new AdminAuthorizationManager())
+                                // Read-only statistics are open to every logged-in user, the rest of /customer is ADMIN only
+                                .requestMatchers(HttpMethod.GET, "/customer/averageAge", "/customer/between18And40").authenticated()
+                                .requestMatchers("/customer/**").access(new AdminAuthorizationManager())
                                 .anyRequest().authenticated())
                 // Allow H2 console frames
                 .headers(headers -> headers.frameOptions(HeadersConfigurer.FrameOptionsConfig::disable))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // Answer missing credentials and denied access with pre-encoded JSON bodies
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint((request, response, ex) -> errorBodies.unauthorized(response))
+                        .accessDeniedHandler((request, response, ex) -> errorBodies.forbidden(response)))
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
@@ -0,0 +1,50 @@
+package kdaniel.customers.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Records how many JDBC statements each request executed, per route pattern.
+ * An endpoint whose statement count grows with its result size (N+1) shows up as a rising
+ * customers.jdbc.statements.per_request distribution.
+ */
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private final MeterRegistry registry;
+
+    public StatementCountFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                // The route pattern keeps the tag bounded, unlike the raw URI with ids in it
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                DistributionSummary.builder("customers.jdbc.statements.per_request")
+                        .description("JDBC statements executed per HTTP request")
+                        .tag("method", request.getMethod())
+                        .tag("uri", route != null ? route.toString() : UNKNOWN_ROUTE)
+                        .publishPercentileHistogram()
+                        .register(registry)
+                        .record(scope.count());
+            }
+        }
+    }
+}
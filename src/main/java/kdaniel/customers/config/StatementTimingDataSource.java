@@ -0,0 +1,200 @@
+package kdaniel.customers.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description DataSource wrapper that times every JDBC statement execution.
+ * Each distinct SQL string gets its own "customers.jdbc.statements" timer with a percentile histogram.
+ * Statements slower than the threshold are logged together with their bind shape
+ * (the JDBC setter used for each parameter, never the value itself).
+ */
+public class StatementTimingDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementTimingDataSource.class);
+
+    // Upper bound on distinct query timers; anything beyond is recorded under "other"
+    private static final int MAX_QUERY_TIMERS = 256;
+    private static final String UNKNOWN_QUERY = "other";
+
+    private final MeterRegistry registry;
+    private final long thresholdNanos;
+    // Keyed by the normalized SQL, never more than MAX_QUERY_TIMERS entries
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Timer unknownQueryTimer;
+
+    public StatementTimingDataSource(DataSource target, MeterRegistry registry, Duration threshold) {
+        super(target);
+        this.registry = registry;
+        this.thresholdNanos = threshold.toNanos();
+        this.unknownQueryTimer = register(UNKNOWN_QUERY);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                StatementTimingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = JdbcProxies.invoke(connection, method, args);
+                    if (result instanceof Statement statement) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                        return wrap(statement, sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement wrap(Statement statement, String sql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return (Statement) Proxy.newProxyInstance(
+                StatementTimingDataSource.class.getClassLoader(),
+                new Class<?>[]{type},
+                new StatementHandler(statement, sql));
+    }
+
+    private Timer timer(String sql) {
+        if (UNKNOWN_QUERY.equals(sql)) {
+            return unknownQueryTimer;
+        }
+        String query = normalize(sql);
+        Timer timer = timers.get(query);
+        if (timer != null) {
+            return timer;
+        }
+        // Once full, new queries share the "other" timer without adding keys; racing threads can overshoot by a few
+        if (timers.size() >= MAX_QUERY_TIMERS) {
+            return unknownQueryTimer;
+        }
+        return timers.computeIfAbsent(query, this::register);
+    }
+
+    private Timer register(String query) {
+        return Timer.builder("customers.jdbc.statements")
+                .description("JDBC statement execution time per query")
+                .tag("query", query)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Collapses whitespace runs into one space and trims, so formatting differences share a timer.
+     * Returns the string itself when it is already normalized, which is the common case.
+     */
+    static String normalize(String sql) {
+        int length = sql.length();
+        boolean normalized = length == 0 || (!Character.isWhitespace(sql.charAt(0)) && !Character.isWhitespace(sql.charAt(length - 1)));
+        for (int i = 0; normalized && i < length; i++) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c) && (c != ' ' || Character.isWhitespace(sql.charAt(i + 1)))) {
+                normalized = false;
+            }
+        }
+        if (normalized) {
+            return sql;
+        }
+        StringBuilder builder = new StringBuilder(length);
+        boolean space = false;
+        for (int i = 0; i < length; i++) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = builder.length() > 0;
+            } else {
+                if (space) {
+                    builder.append(' ');
+                    space = false;
+                }
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Records the bind shape of a statement and times its execute* calls.
+     */
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+        private final List<String> binds = new ArrayList<>();
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index && index > 0) {
+                bind(index, name.substring(3));
+            } else if (name.equals("clearParameters")) {
+                binds.clear();
+            } else if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            return JdbcProxies.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String query = sql != null ? sql
+                    : args != null && args.length > 0 && args[0] instanceof String s ? s
+                    : UNKNOWN_QUERY;
+            StatementCounter.executed();
+            long start = System.nanoTime();
+            try {
+                return JdbcProxies.invoke(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                timer(query).record(elapsed, TimeUnit.NANOSECONDS);
+                if (elapsed >= thresholdNanos) {
+                    log.atWarn()
+                            .addKeyValue("elapsedMs", TimeUnit.NANOSECONDS.toMillis(elapsed))
+                            .addKeyValue("binds", binds.toString())
+                            .log("Slow query: {}", query);
+                }
+            }
+        }
+
+        private void bind(int index, String type) {
+            while (binds.size() < index) {
+                binds.add("?");
+            }
+            binds.set(index - 1, type);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package kdaniel.customers.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description BCryptPasswordEncoder that records the duration of every encode and match
+ * in the "customers.bcrypt" timer, tagged by operation.
+ */
+public class TimedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+
+    public TimedBCryptPasswordEncoder(MeterRegistry registry) {
+        super();
+        this.encodeTimer = timer(registry, "encode");
+        this.matchTimer = timer(registry, "match");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        Timer.Sample sample = Timer.start();
+        try {
+            return super.encode(rawPassword);
+        } finally {
+            sample.stop(encodeTimer);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Timer.Sample sample = Timer.start();
+        try {
+            return super.matches(rawPassword, encodedPassword);
+        } finally {
+            sample.stop(matchTimer);
+        }
+    }
+
+    private static Timer timer(MeterRegistry registry, String operation) {
+        return Timer.builder("customers.bcrypt")
+                .description("Time spent hashing or verifying passwords with BCrypt")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
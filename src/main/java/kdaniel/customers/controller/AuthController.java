@@ -1,18 +1,25 @@
 package kdaniel.customers.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import kdaniel.customers.dto.auth.LoginDTO;
+import kdaniel.customers.dto.auth.RefreshTokenDTO;
 import kdaniel.customers.dto.auth.RegisterDTO;
 import kdaniel.customers.dto.auth.TokenDTO;
 import kdaniel.customers.model.ResponseModel;
 import kdaniel.customers.service.CustomerService;
+import kdaniel.customers.service.LoginRateLimiter;
+import kdaniel.customers.util.FieldValidationException;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -24,12 +31,16 @@ import org.springframework.web.bind.annotation.RestController;
  * @Date: 2025-04-26
  */
 
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestController
 @RequestMapping("/auth")
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @AllArgsConstructor
 public class AuthController {
+    private static final String BEARER_PREFIX = "Bearer ";
+
     CustomerService service;
+    LoginRateLimiter loginRateLimiter;
 
     @PostMapping("/register")
     public ResponseEntity<Void> register(@Valid @RequestBody RegisterDTO registerDTO) {
@@ -37,9 +48,38 @@ public class AuthController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * @Description Logs the user in. Rate limited per username and client address before any
+     * database or BCrypt work; answers 429 with Retry-After when a limit is exceeded.
+     */
     @PostMapping("/login")
-    public ResponseEntity<ResponseModel<TokenDTO>> login(@Valid @RequestBody LoginDTO user) {
-            return ResponseEntity.ok(service.validateUserAndReturnToken(user));
+    public ResponseEntity<ResponseModel<TokenDTO>> login(@Valid @RequestBody LoginDTO user, HttpServletRequest request) {
+            loginRateLimiter.checkLogin(user.getUsername(), request.getRemoteAddr());
+            ResponseModel<TokenDTO> token = service.validateUserAndReturnToken(user);
+            loginRateLimiter.loginSucceeded(user.getUsername());
+            return ResponseEntity.ok(token);
+    }
+
+    /**
+     * @Description Renews the access token with a refresh token, without a password check.
+     * The refresh token is rotated: the response carries its replacement.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<ResponseModel<TokenDTO>> refresh(@Valid @RequestBody RefreshTokenDTO refreshTokenDTO) {
+        return ResponseEntity.ok(service.refreshToken(refreshTokenDTO.getRefreshToken()));
+    }
+
+    /**
+     * @Description Revokes the access token of the request, so it is rejected before its expiry, and
+     * every refresh token of the customer. Answers 400 without a Bearer header.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            throw new FieldValidationException(HttpHeaders.AUTHORIZATION, "missing Bearer token");
+        }
+        service.logout(authorization.substring(BEARER_PREFIX.length()));
+        return ResponseEntity.noContent().build();
     }
 
 }
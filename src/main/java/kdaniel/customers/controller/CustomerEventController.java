@@ -0,0 +1,123 @@
+package kdaniel.customers.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import kdaniel.customers.dto.customer.CustomerEventDTO;
+import kdaniel.customers.model.ResponseModel;
+import kdaniel.customers.service.CustomerEventFeed;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Change stream of customers, for downstream systems that used to poll GET /customer.
+ * Consumers keep the offset of the last event they processed and resume from it, either by
+ * long-polling or over server-sent events. Only accessible to ADMIN.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RestController
+@RequestMapping("/customer/events")
+public class CustomerEventController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final CustomerEventFeed customerEventFeed;
+    private final Executor taskExecutor;
+    private final Duration longPollTimeout;
+    private final Duration streamTimeout;
+
+    public CustomerEventController(CustomerEventFeed customerEventFeed,
+                                   @Qualifier("applicationTaskExecutor") Executor taskExecutor,
+                                   @Value("${customer.events.long-poll-timeout}") Duration longPollTimeout,
+                                   @Value("${customer.events.stream-timeout}") Duration streamTimeout) {
+        this.customerEventFeed = customerEventFeed;
+        this.taskExecutor = taskExecutor;
+        this.longPollTimeout = longPollTimeout;
+        this.streamTimeout = streamTimeout;
+    }
+
+    /**
+     * @GetMapping("/customer/events")
+     * @Description Long-poll: returns the events after the offset at once if there are any, otherwise
+     * waits for the next ones and answers with an empty list when the timeout passes first.
+     * @Param offset - Offset of the last event processed, 0 to start from the oldest retained one.
+     * @Param limit - Maximum number of events, at most 1000.
+     * @Return List of CustomerEventDTOs in offset order.
+     */
+    @GetMapping
+    public DeferredResult<ResponseEntity<ResponseModel<List<CustomerEventDTO>>>> poll(@RequestParam(defaultValue = "0") long offset,
+                                                                                     @RequestParam(defaultValue = "100") int limit) {
+        DeferredResult<ResponseEntity<ResponseModel<List<CustomerEventDTO>>>> result = new DeferredResult<>(
+                longPollTimeout.toMillis(), ResponseEntity.ok(new ResponseModel<>(true, List.of())));
+        CompletableFuture<List<CustomerEventDTO>> events = customerEventFeed.poll(offset, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        events.thenAccept(batch -> result.setResult(ResponseEntity.ok(new ResponseModel<>(true, batch))));
+        result.onCompletion(() -> events.cancel(false));
+        return result;
+    }
+
+    /**
+     * @GetMapping("/customer/events/stream")
+     * @Description Server-sent events: every event after the offset, then new ones as they are delivered.
+     * The SSE id is the offset, so a reconnecting EventSource resumes through Last-Event-ID.
+     * @Param offset - Offset of the last event processed; Last-Event-ID takes precedence.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(defaultValue = "0") long offset,
+                             @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+                             HttpServletResponse response) {
+        // Keep proxies from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        AtomicReference<CompletableFuture<List<CustomerEventDTO>>> pending = new AtomicReference<>();
+        Runnable stop = () -> {
+            CompletableFuture<List<CustomerEventDTO>> waiting = pending.get();
+            if (waiting != null) {
+                waiting.cancel(false);
+            }
+        };
+        emitter.onCompletion(stop);
+        emitter.onTimeout(stop);
+        emitter.onError(error -> stop.run());
+        pump(emitter, lastEventId != null ? lastEventId : offset, pending);
+        return emitter;
+    }
+
+    /**
+     * Waits for the next events and sends them on a task thread, never on the relay thread that
+     * completes the wait, then waits again from the last offset sent.
+     */
+    private void pump(SseEmitter emitter, long offset, AtomicReference<CompletableFuture<List<CustomerEventDTO>>> pending) {
+        CompletableFuture<List<CustomerEventDTO>> events = customerEventFeed.poll(offset, MAX_LIMIT);
+        pending.set(events);
+        events.thenAcceptAsync(batch -> {
+            long sent = offset;
+            try {
+                for (CustomerEventDTO event : batch) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getOffset()))
+                            .name(event.getType().name())
+                            .data(event, MediaType.APPLICATION_JSON));
+                    sent = event.getOffset();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter timed out
+                emitter.completeWithError(e);
+                return;
+            }
+            pump(emitter, sent, pending);
+        }, taskExecutor);
+    }
+}
@@ -1,6 +1,9 @@
 package kdaniel.customers.controller;
 
 import kdaniel.customers.util.FieldValidationException;
+import kdaniel.customers.util.RateLimitExceededException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -40,4 +43,15 @@ public class GlobalExceptionHandler {
         );
         return ResponseEntity.badRequest().body(errors);
     }
-}
\ No newline at end of file
+
+    /**
+     * @ExceptionHandler(RateLimitExceededException.class)
+     * @Description Handles rate limit rejections with 429 Too Many Requests and a Retry-After header.
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, String>> handleRateLimitExceeded(RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of(ex.getLimit(), ex.getMessage()));
+    }
+}
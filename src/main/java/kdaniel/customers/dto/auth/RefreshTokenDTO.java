@@ -0,0 +1,13 @@
+package kdaniel.customers.dto.auth;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshTokenDTO {
+    @NotBlank(message = "Refresh token must not be empty")
+    private String refreshToken;
+}
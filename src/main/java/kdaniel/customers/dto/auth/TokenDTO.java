@@ -1,5 +1,6 @@
 package kdaniel.customers.dto.auth;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
@@ -9,4 +10,11 @@ import lombok.Setter;
 @AllArgsConstructor
 public class TokenDTO {
     private String token;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String refreshToken;
+
+    public TokenDTO(String token) {
+        this.token = token;
+    }
 }
@@ -0,0 +1,29 @@
+package kdaniel.customers.dto.customer;
+
+import kdaniel.customers.model.CustomerEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerEventDTO {
+    private Long offset;
+    private Long customerId;
+    private CustomerEvent.Type type;
+    private String username;
+    private String fullName;
+    private String email;
+    private Byte age;
+    private Instant occurredAt;
+
+    public static CustomerEventDTO of(CustomerEvent event) {
+        return new CustomerEventDTO(event.getEventOffset(), event.getCustomerId(), event.getType(), event.getUsername(),
+                event.getFullName(), event.getEmail(), event.getAge(), event.getOccurredAt());
+    }
+}
@@ -0,0 +1,17 @@
+package kdaniel.customers.dto.customer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSearchDTO {
+    private Long id;
+    private String username;
+    private String fullName;
+    private String email;
+}
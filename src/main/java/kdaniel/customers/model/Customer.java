@@ -2,17 +2,26 @@ package kdaniel.customers.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.io.Serializable;
 import java.sql.Date;
+import java.time.Instant;
+import java.util.Locale;
 
 @Getter
 @Setter
 @Entity
 @NoArgsConstructor
 @Table(name = "customer")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customer")
+@NaturalIdCache(region = "customer-natural-id")
 @Builder
 @AllArgsConstructor
 public class Customer implements Serializable {
@@ -20,22 +29,32 @@ public class Customer implements Serializable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
 
+    // Lower-cased username, unique; every username lookup goes through it (natural id, cached)
+    @NaturalId(mutable = true)
+    @Column(name = "normalized_username", unique = true, nullable = false)
+    private String normalizedUsername;
+
     @Column(nullable = false)
     private String password;
 
     @Column(nullable = false)
     private String fullName;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
+    // Lower-cased email, unique; every email lookup goes through it
+    @Column(name = "normalized_email", unique = true, nullable = false)
+    private String normalizedEmail;
+
     @Column(nullable = false)
     private Byte age;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Lazy: listings and aggregates never read it; the paths that do load it with an entity graph
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "role_id", nullable = false)
     private Role role;
 
@@ -47,6 +66,10 @@ public class Customer implements Serializable {
     @Column(name = "updated_at")
     private Date updatedAt;
 
+    // Set by deleteCustomer; the row is hidden from every read and removed later by CustomerPurger
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
     public Customer(long id, String username, String fullName, String password, byte age, Role role) {
         this.id = id;
         this.username = username;
@@ -56,5 +79,22 @@ public class Customer implements Serializable {
         this.role = role;
     }
 
+    public boolean isDeleted() {
+        return deletedAt != null;
+    }
+
+    /**
+     * Case folding used for the normalized lookup columns.
+     */
+    public static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalize() {
+        normalizedUsername = normalize(username);
+        normalizedEmail = normalize(email);
+    }
 
 }
@@ -0,0 +1,51 @@
+package kdaniel.customers.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A customer change in the outbox, written in the transaction that made the change.
+ * The offset stays null until the relay has delivered the event; from then on it is the event's
+ * position in the change stream. DELETED events carry only the customer id.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+@Table(name = "customer_event")
+public class CustomerEvent {
+
+    public enum Type {
+        REGISTERED, UPDATED, DELETED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_offset", unique = true)
+    private Long eventOffset;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    private String username;
+
+    @Column(name = "full_name")
+    private String fullName;
+
+    private String email;
+
+    private Byte age;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+}
@@ -0,0 +1,39 @@
+package kdaniel.customers.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A refresh token, stored only as the SHA-256 hash of the value handed to the client.
+ * Tokens issued by rotating each other share a family; presenting a used token revokes the whole family.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+@Table(name = "refresh_token", indexes = @Index(name = "idx_refresh_token_family", columnList = "family_id"))
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 32)
+    private byte[] tokenHash;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "family_id", nullable = false)
+    private Long familyId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private boolean used;
+}
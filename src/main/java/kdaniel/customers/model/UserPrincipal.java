@@ -8,6 +8,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Custom implementation of the UserDetails interface for Spring Security.
@@ -20,13 +22,19 @@ import java.util.List;
 @Setter
 public class UserPrincipal implements UserDetails {
 
+    public static final String ADMIN_ROLE = "ADMIN";
+    public static final String ADMIN_AUTHORITY = "ROLE_" + ADMIN_ROLE;
+
+    // One immutable authority list per role name, shared by every principal of that role
+    private static final Map<String, List<GrantedAuthority>> ROLE_AUTHORITIES = new ConcurrentHashMap<>();
+
     private Role role;
     private String username;
     private Collection<? extends GrantedAuthority> authorities;
 
     public UserPrincipal(String username, Collection<? extends GrantedAuthority> authorities, Role role) {
         this.username = username;
-        this.authorities = authorities;
+        this.authorities = authorities == null ? null : List.copyOf(authorities);
         this.role = role;
     }
 
@@ -35,9 +43,36 @@ public class UserPrincipal implements UserDetails {
         this.role = role;
     }
 
+    /**
+     * Returns the authorities given to the constructor, or else the shared authority list of the role.
+     */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority("ROLE_" + role.getName()));
+        if (authorities != null) {
+            return authorities;
+        }
+        return role == null ? List.of() : authoritiesOf(role);
+    }
+
+    /**
+     * Admin check used by the URL authorization rules. Decided by the same authorities Spring Security
+     * sees, so a principal built with explicit authorities is judged by those, not by its role.
+     */
+    public boolean isAdmin() {
+        for (GrantedAuthority authority : getAuthorities()) {
+            if (ADMIN_AUTHORITY.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the cached, immutable authority list for the given role, built on first use.
+     */
+    public static List<GrantedAuthority> authoritiesOf(Role role) {
+        return ROLE_AUTHORITIES.computeIfAbsent(role.getName(),
+                name -> List.of(new SimpleGrantedAuthority("ROLE_" + name)));
     }
 
     @Override
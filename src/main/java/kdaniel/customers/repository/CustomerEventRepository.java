@@ -0,0 +1,29 @@
+package kdaniel.customers.repository;
+
+import kdaniel.customers.model.CustomerEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface CustomerEventRepository extends JpaRepository<CustomerEvent, Long> {
+
+    // Outbox order; the relay turns it into offsets
+    @Query("SELECT e FROM CustomerEvent e WHERE e.eventOffset IS NULL ORDER BY e.id")
+    List<CustomerEvent> findUndelivered(Limit limit);
+
+    @Query("SELECT MAX(e.eventOffset) FROM CustomerEvent e")
+    Long findLastOffset();
+
+    @Query("SELECT e FROM CustomerEvent e WHERE e.eventOffset > :offset ORDER BY e.eventOffset")
+    List<CustomerEvent> findDeliveredAfter(long offset, Limit limit);
+
+    // The row holding the highest offset is kept whatever its age: the relay numbers the next batch after it
+    @Modifying
+    @Query("DELETE FROM CustomerEvent e WHERE e.eventOffset IS NOT NULL AND e.occurredAt < :before "
+            + "AND e.eventOffset < (SELECT MAX(l.eventOffset) FROM CustomerEvent l)")
+    int deleteDeliveredBefore(Instant before);
+}
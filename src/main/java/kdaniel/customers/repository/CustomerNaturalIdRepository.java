@@ -0,0 +1,15 @@
+package kdaniel.customers.repository;
+
+import kdaniel.customers.model.Customer;
+
+import java.util.Optional;
+
+/**
+ * Customer lookups by natural id, served from the second-level cache when possible.
+ */
+public interface CustomerNaturalIdRepository {
+    Optional<Customer> findByNormalizedUsername(String normalizedUsername);
+
+    // The same lookup with the lazy role initialized, also from the second-level cache when it holds it
+    Optional<Customer> findCachedWithRoleByNormalizedUsername(String normalizedUsername);
+}
@@ -0,0 +1,43 @@
+package kdaniel.customers.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import kdaniel.customers.model.Customer;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Loads customers through Hibernate's natural-id API instead of a derived query.
+ * The natural-id cache resolves the username to the id and the entity cache resolves the id to the
+ * customer, so a repeated lookup never reaches the database. With the role initialized from the Role
+ * cache as well, a repeated login lookup runs no statement at all.
+ */
+public class CustomerNaturalIdRepositoryImpl implements CustomerNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Unwrapping the shared EntityManager needs a transaction. Not read-only: these lookups feed logins and
+    // principals, which must not be served by a lagging replica.
+    @Override
+    @Transactional
+    public Optional<Customer> findByNormalizedUsername(String normalizedUsername) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Customer.class)
+                .loadOptional(normalizedUsername);
+    }
+
+    @Override
+    @Transactional
+    public Optional<Customer> findCachedWithRoleByNormalizedUsername(String normalizedUsername) {
+        Optional<Customer> customer = findByNormalizedUsername(normalizedUsername);
+        // Initialized while the session is open; Role is cached read-only, so this is usually no statement
+        customer.ifPresent(found -> Hibernate.initialize(found.getRole()));
+        return customer;
+    }
+}
@@ -1,35 +1,88 @@
 package kdaniel.customers.repository;
 
-import jakarta.validation.constraints.NotBlank;
 import kdaniel.customers.dto.customer.CustomerDTO;
+import kdaniel.customers.dto.customer.CustomerSearchDTO;
 import kdaniel.customers.model.Customer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.NativeQuery;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
-public interface CustomerRepository extends JpaRepository<Customer,Long> {
-    Optional<Customer> findByUsername(String username);
-    Boolean existsByUsername(String username);
-    Boolean existsByEmail(String email);
-    Optional<Customer> findCustomerById(@NotBlank(message = "Id must not be empty") Long id);
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Every read declared below skips soft-deleted customers. The existence checks do not: a deleted
+ * customer's username and email stay taken until CustomerPurger removes the row.
+ * The methods inherited from JpaRepository (findAll, findById, findAllById, count, existsById) are not filtered
+ * and do return deleted rows; CustomerPurger relies on that. Application reads go through findCustomerById,
+ * findByUsername and the queries below instead.
+ */
+public interface CustomerRepository extends JpaRepository<Customer,Long>, CustomerNaturalIdRepository,
+        CustomerStreamRepository {
+    Boolean existsByNormalizedUsername(String normalizedUsername);
+    Boolean existsByNormalizedEmail(String normalizedEmail);
 
-    @Query("SELECT c FROM Customer c")
-    Stream<Customer> streamAllCustomers();
+    // Case-insensitive lookups, each a seek on a unique index of a normalized column
+    default Optional<Customer> findByUsername(String username) {
+        return findByNormalizedUsername(Customer.normalize(username)).filter(customer -> !customer.isDeleted());
+    }
 
-    @NativeQuery("SELECT FULL_NAME, AGE, EMAIL FROM Customer WHERE age >= 18 AND age <= 40")
+    default Boolean existsByUsername(String username) {
+        return existsByNormalizedUsername(Customer.normalize(username));
+    }
+
+    default Boolean existsByEmail(String email) {
+        return existsByNormalizedEmail(Customer.normalize(email));
+    }
+
+    // findById goes through the entity cache, a derived query would not
+    default Optional<Customer> findCustomerById(Long id) {
+        return findById(id).filter(customer -> !customer.isDeleted());
+    }
+
+    // The role is lazy; these variants fetch it in the same select, for callers that build a principal from it
+    @EntityGraph(attributePaths = "role")
+    @Query("SELECT c FROM Customer c WHERE c.normalizedUsername = :normalizedUsername AND c.deletedAt IS NULL")
+    Optional<Customer> findWithRoleByNormalizedUsername(String normalizedUsername);
+
+    @EntityGraph(attributePaths = "role")
+    @Query("SELECT c FROM Customer c WHERE c.id = :id AND c.deletedAt IS NULL")
+    Optional<Customer> findWithRoleById(Long id);
+
+    default Optional<Customer> findWithRoleByUsername(String username) {
+        return findWithRoleByNormalizedUsername(Customer.normalize(username));
+    }
+
+    // Login: natural-id and entity caches for the customer, the Role cache for its role
+    default Optional<Customer> findCachedWithRoleByUsername(String username) {
+        return findCachedWithRoleByNormalizedUsername(Customer.normalize(username)).filter(customer -> !customer.isDeleted());
+    }
+
+    @Query("SELECT new kdaniel.customers.dto.customer.CustomerSearchDTO(c.id, c.username, c.fullName, c.email) FROM Customer c WHERE c.deletedAt IS NULL")
+    Stream<CustomerSearchDTO> streamSearchFields();
+
+    @NativeQuery("SELECT FULL_NAME, AGE, EMAIL FROM Customer WHERE age >= 18 AND age <= 40 AND deleted_at IS NULL")
     List<CustomerDTO> getCustomerBetween18And40();
 
-    @NativeQuery("SELECT FULL_NAME, AGE, EMAIL FROM Customer WHERE id =:id")
+    @NativeQuery("SELECT FULL_NAME, AGE, EMAIL FROM Customer WHERE id =:id AND deleted_at IS NULL")
     CustomerDTO getCustomer(Long id);
 
-    Optional<Customer> findCustomerByUsername(String currentUsername);
+    default Optional<Customer> findCustomerByUsername(String currentUsername) {
+        return findByUsername(currentUsername);
+    }
 
-    @Query("SELECT c FROM Customer c")
+    @Query("SELECT c FROM Customer c WHERE c.deletedAt IS NULL")
     Page<Customer> findAllCustomers(Pageable pageable);
+
+    // Oldest first, for CustomerPurger
+    @Query("SELECT c.id FROM Customer c WHERE c.deletedAt < :deletedBefore ORDER BY c.deletedAt")
+    List<Long> findDeletedIds(Instant deletedBefore, Limit limit);
 }
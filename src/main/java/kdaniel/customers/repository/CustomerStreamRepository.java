@@ -0,0 +1,14 @@
+package kdaniel.customers.repository;
+
+import kdaniel.customers.model.Customer;
+
+import java.util.stream.Stream;
+
+/**
+ * Streaming reads that leave the second-level cache untouched.
+ */
+public interface CustomerStreamRepository {
+    // Runs read-only, so possibly on the replica: cached customers are used, but none are put into the
+    // second-level cache, which must only hold what the primary returned. Needs the caller's transaction.
+    Stream<Customer> streamAllCustomers();
+}
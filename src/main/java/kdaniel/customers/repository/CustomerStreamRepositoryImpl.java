@@ -0,0 +1,37 @@
+package kdaniel.customers.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import kdaniel.customers.model.Customer;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+
+import java.util.stream.Stream;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description A cache mode given as a query hint only applies while the query is executed; a stream loads
+ * its rows afterwards, as it is consumed, with the session's cache mode. The session therefore runs with
+ * CacheMode.GET until the stream is closed, and its previous mode is restored then.
+ */
+public class CustomerStreamRepositoryImpl implements CustomerStreamRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Customer> streamAllCustomers() {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        try {
+            return session.createSelectionQuery("SELECT c FROM Customer c WHERE c.deletedAt IS NULL", Customer.class)
+                    .stream()
+                    .onClose(() -> session.setCacheMode(previous));
+        } catch (RuntimeException e) {
+            session.setCacheMode(previous);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package kdaniel.customers.repository;
+
+import kdaniel.customers.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+
+    List<RefreshToken> findByUsedFalseAndExpiresAtAfter(Instant now);
+
+    /**
+     * Marks an unused token as used. Returns 0 if another request rotated it first.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.used = true WHERE t.id = :id AND t.used = false")
+    int markUsed(Long id);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.familyId = :familyId")
+    int deleteByFamily(Long familyId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+    int deleteExpired(Instant now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.customerId IN :customerIds")
+    int deleteByCustomerIds(Collection<Long> customerIds);
+}
@@ -0,0 +1,146 @@
+package kdaniel.customers.service;
+
+import kdaniel.customers.dto.customer.CustomerEventDTO;
+import kdaniel.customers.repository.CustomerEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description In-process CustomerEventSink behind the /customer/events endpoints.
+ * Keeps the most recent events in memory, so consumers tailing the stream are answered without a
+ * query, and completes waiting long-polls as soon as a batch arrives. A consumer further behind
+ * than the buffer reads from the customer_event table, where offsets stay until the retention
+ * period ends. Batches only become visible once the relay transaction has committed them.
+ */
+@Service
+public class CustomerEventFeed implements CustomerEventSink {
+
+    private final CustomerEventRepository customerEventRepository;
+    private final int bufferSize;
+
+    // Guarded by this
+    private final ArrayDeque<CustomerEventDTO> recent = new ArrayDeque<>();
+    private long lastOffset;
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    public CustomerEventFeed(CustomerEventRepository customerEventRepository,
+                             @Value("${customer.events.buffer-size}") int bufferSize) {
+        this.customerEventRepository = customerEventRepository;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * @Description Picks up the last offset delivered before a restart, so reads behind it go to the table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Long last = customerEventRepository.findLastOffset();
+        synchronized (this) {
+            lastOffset = Math.max(lastOffset, last == null ? 0 : last);
+        }
+    }
+
+    @Override
+    public void publish(List<CustomerEventDTO> events) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(events);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(events);
+            }
+        });
+    }
+
+    /**
+     * @Description Events after the given offset, oldest first, without waiting.
+     * @Param offset The last offset the consumer has seen; 0 to start from the oldest retained event.
+     * @Param limit Maximum number of events.
+     */
+    public List<CustomerEventDTO> read(long offset, int limit) {
+        synchronized (this) {
+            CustomerEventDTO oldest = recent.peekFirst();
+            if (offset >= lastOffset) {
+                return List.of();
+            }
+            if (oldest != null && offset >= oldest.getOffset() - 1) {
+                List<CustomerEventDTO> events = new ArrayList<>(Math.min(limit, recent.size()));
+                for (CustomerEventDTO event : recent) {
+                    if (event.getOffset() > offset) {
+                        events.add(event);
+                        if (events.size() == limit) {
+                            break;
+                        }
+                    }
+                }
+                return events;
+            }
+        }
+        return customerEventRepository.findDeliveredAfter(offset, Limit.of(limit)).stream()
+                .map(CustomerEventDTO::of)
+                .toList();
+    }
+
+    /**
+     * @Description Events after the given offset; completes immediately if there are any, otherwise with
+     * the next delivered batch. Cancelling the future stops waiting.
+     */
+    public CompletableFuture<List<CustomerEventDTO>> poll(long offset, int limit) {
+        List<CustomerEventDTO> events = read(offset, limit);
+        if (!events.isEmpty()) {
+            return CompletableFuture.completedFuture(events);
+        }
+        Waiter waiter = new Waiter(offset, limit, new CompletableFuture<>());
+        waiters.add(waiter);
+        waiter.future().whenComplete((result, error) -> waiters.remove(waiter));
+        // A batch appended between the read and the registration did not see this waiter
+        synchronized (this) {
+            if (lastOffset <= offset) {
+                return waiter.future();
+            }
+        }
+        waiter.future().complete(read(offset, limit));
+        return waiter.future();
+    }
+
+    private void append(List<CustomerEventDTO> events) {
+        synchronized (this) {
+            for (CustomerEventDTO event : events) {
+                // Keeps the buffer ordered even if a batch were handed over twice
+                if (event.getOffset() <= lastOffset) {
+                    continue;
+                }
+                recent.addLast(event);
+                lastOffset = event.getOffset();
+            }
+            while (recent.size() > bufferSize) {
+                recent.removeFirst();
+            }
+        }
+        for (Waiter waiter : waiters) {
+            if (!waiter.future().isDone()) {
+                waiter.future().complete(read(waiter.offset(), waiter.limit()));
+            }
+        }
+    }
+
+    private record Waiter(long offset, int limit, CompletableFuture<List<CustomerEventDTO>> future) {
+    }
+}
@@ -0,0 +1,46 @@
+package kdaniel.customers.service;
+
+import kdaniel.customers.model.Customer;
+import kdaniel.customers.model.CustomerEvent;
+import kdaniel.customers.repository.CustomerEventRepository;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Write side of the customer change stream.
+ * Events are only appended inside the caller's transaction, so an event exists exactly when the
+ * change it describes was committed. CustomerEventRelay delivers them afterwards.
+ */
+@Service
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CustomerEventOutbox {
+    CustomerEventRepository customerEventRepository;
+
+    /**
+     * @Description Records a change of the given customer, as it is now.
+     * @Throws IllegalTransactionStateException If called outside a transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(CustomerEvent.Type type, Customer customer) {
+        CustomerEvent.CustomerEventBuilder event = CustomerEvent.builder()
+                .customerId(customer.getId())
+                .type(type)
+                .occurredAt(Instant.now());
+        if (type != CustomerEvent.Type.DELETED) {
+            event.username(customer.getUsername())
+                    .fullName(customer.getFullName())
+                    .email(customer.getEmail())
+                    .age(customer.getAge());
+        }
+        customerEventRepository.save(event.build());
+    }
+}
@@ -0,0 +1,113 @@
+package kdaniel.customers.service;
+
+import kdaniel.customers.dto.customer.CustomerEventDTO;
+import kdaniel.customers.model.CustomerEvent;
+import kdaniel.customers.repository.CustomerEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Moves customer events from the outbox to the sinks.
+ * Each batch is read in outbox order, numbered with consecutive offsets continuing from the last
+ * delivered one, handed to every CustomerEventSink and committed, all in one transaction. Offsets
+ * are assigned here rather than taken from the outbox ids because ids are handed out at insert
+ * but committed in any order, and a consumer resuming after id n would miss a smaller id committed
+ * later. Meant to run on one instance per database; a concurrent relay fails on the unique offset
+ * and retries. Delivered events are deleted once older than the retention period, except the last one.
+ */
+@Service
+public class CustomerEventRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerEventRelay.class);
+
+    private final CustomerEventRepository customerEventRepository;
+    private final List<CustomerEventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+    private final Clock clock;
+
+    @Autowired
+    public CustomerEventRelay(CustomerEventRepository customerEventRepository,
+                              List<CustomerEventSink> sinks,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${customer.events.batch-size}") int batchSize,
+                              @Value("${customer.events.retention}") Duration retention) {
+        this(customerEventRepository, sinks, transactionTemplate, batchSize, retention, Clock.systemUTC());
+    }
+
+    CustomerEventRelay(CustomerEventRepository customerEventRepository, List<CustomerEventSink> sinks,
+                       TransactionTemplate transactionTemplate, int batchSize, Duration retention, Clock clock) {
+        this.customerEventRepository = customerEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    /**
+     * @Description Delivers batches until the outbox is drained.
+     */
+    @Scheduled(fixedDelayString = "${customer.events.relay-interval}", initialDelayString = "${customer.events.relay-interval}")
+    public void relay() {
+        try {
+            while (relayBatch() == batchSize) {
+                // A full batch means more may be waiting
+            }
+        } catch (RuntimeException e) {
+            log.atWarn().setCause(e).log("Customer event relay failed; the batch is delivered again on the next run");
+        }
+    }
+
+    /**
+     * @Description Deletes delivered events older than the retention period; consumers further behind lose them.
+     * The last delivered event always stays, so offsets keep counting up after a quiet period.
+     */
+    @Scheduled(fixedDelayString = "${customer.events.cleanup-interval}", initialDelayString = "${customer.events.cleanup-interval}")
+    public void compact() {
+        int deleted = transactionTemplate.execute(status ->
+                customerEventRepository.deleteDeliveredBefore(clock.instant().minus(retention)));
+        if (deleted > 0) {
+            log.info("Deleted {} delivered customer events past retention", deleted);
+        }
+    }
+
+    /**
+     * @Description Delivers the next batch of undelivered events.
+     * @Return The number of events delivered.
+     */
+    int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<CustomerEvent> events = customerEventRepository.findUndelivered(Limit.of(batchSize));
+            if (events.isEmpty()) {
+                return 0;
+            }
+            Long last = customerEventRepository.findLastOffset();
+            long offset = last == null ? 0 : last;
+            List<CustomerEventDTO> batch = new ArrayList<>(events.size());
+            for (CustomerEvent event : events) {
+                event.setEventOffset(++offset);
+                batch.add(CustomerEventDTO.of(event));
+            }
+            for (CustomerEventSink sink : sinks) {
+                sink.publish(batch);
+            }
+            return events.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+}
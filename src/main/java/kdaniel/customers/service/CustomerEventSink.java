@@ -0,0 +1,18 @@
+package kdaniel.customers.service;
+
+import kdaniel.customers.dto.customer.CustomerEventDTO;
+
+import java.util.List;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Destination of the customer change stream. Every bean implementing it receives
+ * every event from CustomerEventRelay, in offset order, in batches.
+ * publish runs inside the relay transaction that assigns the offsets: throwing rolls the batch back
+ * and it is delivered again on the next run, so a sink must tolerate seeing an offset twice.
+ */
+public interface CustomerEventSink {
+
+    void publish(List<CustomerEventDTO> events);
+}
@@ -0,0 +1,82 @@
+package kdaniel.customers.service;
+
+import kdaniel.customers.repository.CustomerRepository;
+import kdaniel.customers.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Physically removes soft-deleted customers in the background.
+ * Each run deletes at most one small batch, oldest deletion first, in its own short transaction,
+ * so a bulk delete by an admin drains at a fixed rate (batch-size per interval) instead of
+ * holding locks and rewriting indexes on the request thread. Their refresh tokens go with them.
+ */
+@Service
+public class CustomerPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerPurger.class);
+
+    private final CustomerRepository customerRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration gracePeriod;
+    private final Clock clock;
+
+    @Autowired
+    public CustomerPurger(CustomerRepository customerRepository,
+                          RefreshTokenRepository refreshTokenRepository,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${customer.purge.batch-size}") int batchSize,
+                          @Value("${customer.purge.grace-period}") Duration gracePeriod) {
+        this(customerRepository, refreshTokenRepository, transactionTemplate, batchSize, gracePeriod, Clock.systemUTC());
+    }
+
+    CustomerPurger(CustomerRepository customerRepository, RefreshTokenRepository refreshTokenRepository,
+                   TransactionTemplate transactionTemplate, int batchSize, Duration gracePeriod, Clock clock) {
+        this.customerRepository = customerRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.gracePeriod = gracePeriod;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${customer.purge.interval}", initialDelayString = "${customer.purge.interval}")
+    public void purge() {
+        int purged = purgeBatch();
+        if (purged > 0) {
+            log.debug("Purged {} soft-deleted customers", purged);
+        }
+    }
+
+    /**
+     * @Description Removes up to one batch of customers deleted longer ago than the grace period.
+     * @Return The number of customers removed; less than the batch size once nothing is left.
+     */
+    int purgeBatch() {
+        Integer purged = transactionTemplate.execute(status -> {
+            List<Long> ids = customerRepository.findDeletedIds(clock.instant().minus(gracePeriod), Limit.of(batchSize));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            refreshTokenRepository.deleteByCustomerIds(ids);
+            // Removed as entities rather than by a bulk delete, which would empty the whole customer cache region
+            customerRepository.deleteAll(customerRepository.findAllById(ids));
+            return ids.size();
+        });
+        return purged == null ? 0 : purged;
+    }
+}
@@ -0,0 +1,339 @@
+package kdaniel.customers.service;
+
+import kdaniel.customers.dto.customer.CustomerSearchDTO;
+import kdaniel.customers.model.Customer;
+import kdaniel.customers.repository.CustomerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description In-process search index over customer username, full name and email.
+ * Every field is lower-cased and split into words (an email gives its parts, e.g. "john", "doe",
+ * "example", "com"); usernames and emails are also indexed whole. Terms live in a sorted dictionary,
+ * so a prefix query is a range scan that yields the exact match first and stops after k hits.
+ * Words also go into a trigram index: a query word with no prefix match falls back to terms within
+ * a small edit distance (typos). A multi-word query matches customers that contain every word.
+ * Rebuilt from the table at startup and kept current by CustomerService once each write has committed.
+ */
+@Service
+public class CustomerSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerSearchIndex.class);
+
+    // Upper bound on candidates checked for multi-word queries, so very common words stay cheap
+    private static final int MAX_CANDIDATES = 10_000;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private record Document(CustomerSearchDTO customer, String[] terms) {
+    }
+
+    private final CustomerRepository customerRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    public CustomerSearchIndex(CustomerRepository customerRepository) {
+        this.customerRepository = customerRepository;
+    }
+
+    /**
+     * @Description Returns at most limit customers matching every word of the query:
+     * exact and prefix matches first, then typo-tolerant matches.
+     */
+    public List<CustomerSearchDTO> search(String query, int limit) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // The longest word is usually the most selective; the others only filter its candidates
+        words.sort(Comparator.comparingInt(String::length).reversed());
+        String driver = words.get(0);
+        List<String> filters = words.subList(1, words.size());
+
+        lock.readLock().lock();
+        try {
+            Set<Long> hits = new LinkedHashSet<>();
+            int[] checked = {0};
+            collect(prefixTerms(driver), filters, limit, hits, checked);
+            if (hits.size() < limit) {
+                collect(fuzzyTerms(driver), filters, limit, hits, checked);
+            }
+            return hits.stream().map(id -> documents.get(id).customer()).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @Description Adds or re-indexes a saved customer.
+     */
+    public void put(Customer customer) {
+        if (customer == null || customer.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(customer.getId());
+            addDocument(new CustomerSearchDTO(customer.getId(), customer.getUsername(), customer.getFullName(), customer.getEmail()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @Description Drops a deleted customer from the index.
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @Description Rebuilds the index from the customer table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try (Stream<CustomerSearchDTO> customers = customerRepository.streamSearchFields()) {
+            terms.clear();
+            trigrams.clear();
+            documents.clear();
+            customers.forEach(this::addDocument);
+            log.info("Indexed {} customers, {} terms", documents.size(), terms.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void collect(Iterable<String> matchingTerms, List<String> filters, int limit, Set<Long> hits, int[] checked) {
+        for (String term : matchingTerms) {
+            Postings postings = terms.get(term);
+            for (int i = 0; i < postings.size; i++) {
+                long id = postings.ids[i];
+                if (!filters.isEmpty()) {
+                    if (++checked[0] > MAX_CANDIDATES) {
+                        return;
+                    }
+                    if (!matchesAll(documents.get(id), filters)) {
+                        continue;
+                    }
+                }
+                hits.add(id);
+                if (hits.size() >= limit) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean matchesAll(Document document, List<String> words) {
+        for (String word : words) {
+            boolean found = false;
+            for (String term : document.terms()) {
+                if (term.startsWith(word)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // A live view of the sorted dictionary; the scan stops as soon as enough hits are collected
+    private Set<String> prefixTerms(String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet();
+    }
+
+    /**
+     * Terms within edit distance 1 (2 for words of 8+ characters), closest first. A term within
+     * distance d shares at least length - 3d padded trigrams with the word, which prunes the candidates.
+     */
+    private List<String> fuzzyTerms(String word) {
+        if (word.length() < MIN_FUZZY_LENGTH) {
+            return List.of();
+        }
+        int maxDistance = word.length() >= 8 ? 2 : 1;
+        int required = word.length() - 3 * maxDistance;
+
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : trigramsOf(word)) {
+            for (String term : trigrams.getOrDefault(gram, Set.of())) {
+                shared.merge(term, 1, Integer::sum);
+            }
+        }
+
+        List<Map.Entry<String, Integer>> matches = new ArrayList<>();
+        for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+            String term = candidate.getKey();
+            if (candidate.getValue() < required || term.startsWith(word)) {
+                continue;
+            }
+            int distance = distance(word, term, maxDistance);
+            if (distance <= maxDistance) {
+                matches.add(Map.entry(term, distance));
+            }
+        }
+        matches.sort(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        return matches.stream().map(Map.Entry::getKey).toList();
+    }
+
+    private void addDocument(CustomerSearchDTO customer) {
+        Set<String> words = new LinkedHashSet<>();
+        words.addAll(tokenize(customer.getUsername()));
+        words.addAll(tokenize(customer.getFullName()));
+        words.addAll(tokenize(customer.getEmail()));
+
+        Set<String> documentTerms = new LinkedHashSet<>();
+        for (String word : words) {
+            documentTerms.add(addTerm(word, customer.getId(), true));
+        }
+        for (String whole : new String[]{customer.getUsername(), customer.getEmail()}) {
+            if (whole != null) {
+                documentTerms.add(addTerm(whole.toLowerCase(Locale.ROOT), customer.getId(), false));
+            }
+        }
+        documents.put(customer.getId(), new Document(customer, documentTerms.toArray(String[]::new)));
+    }
+
+    // Returns the dictionary's own instance of the term, so documents share it instead of holding copies
+    private String addTerm(String term, long id, boolean fuzzy) {
+        Map.Entry<String, Postings> existing = terms.ceilingEntry(term);
+        if (existing != null && existing.getKey().equals(term)) {
+            existing.getValue().add(id);
+            return existing.getKey();
+        }
+        Postings postings = new Postings();
+        postings.add(id);
+        terms.put(term, postings);
+        if (fuzzy && term.length() >= MIN_FUZZY_LENGTH - 1) {
+            for (String gram : trigramsOf(term)) {
+                trigrams.computeIfAbsent(gram, key -> new HashSet<>()).add(term);
+            }
+        }
+        return term;
+    }
+
+    private void removeDocument(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.remove(id) && postings.size == 0) {
+                terms.remove(term);
+                for (String gram : trigramsOf(term)) {
+                    Set<String> grams = trigrams.get(gram);
+                    if (grams != null && grams.remove(term) && grams.isEmpty()) {
+                        trigrams.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static List<String> trigramsOf(String term) {
+        String padded = "$" + term + "$";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Levenshtein distance, giving up (returning max + 1) as soon as it must exceed max.
+     */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Sorted customer ids of one term in a plain long array: 8 bytes per entry instead of a boxed set.
+     * New customers get increasing ids, so adding is normally an append.
+     */
+    private static final class Postings {
+        long[] ids = new long[2];
+        int size;
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insert = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insert, ids, insert + 1, size - insert);
+            ids[insert] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package kdaniel.customers.service;
 
+import io.micrometer.core.annotation.Timed;
 import kdaniel.customers.dto.auth.TokenDTO;
 import kdaniel.customers.dto.customer.AverageAgeDTO;
 import kdaniel.customers.dto.customer.CustomerDTO;
+import kdaniel.customers.dto.customer.CustomerSearchDTO;
 import kdaniel.customers.dto.customer.EditCustomerDTO;
 import kdaniel.customers.model.ResponseModel;
 import kdaniel.customers.model.Role;
@@ -10,15 +12,17 @@ import kdaniel.customers.validation.CustomerValidator;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.transaction.annotation.Transactional;
 import kdaniel.customers.dto.auth.LoginDTO;
 import kdaniel.customers.dto.auth.RegisterDTO;
 import kdaniel.customers.model.Customer;
+import kdaniel.customers.model.CustomerEvent;
 import kdaniel.customers.model.UserPrincipal;
 import kdaniel.customers.repository.CustomerRepository;
+import kdaniel.customers.util.AfterCommit;
 import kdaniel.customers.util.FieldValidationException;
 import org.modelmapper.ModelMapper;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -26,6 +30,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Stream;
 
@@ -38,18 +43,23 @@ import java.util.stream.Stream;
 @Service
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Timed(value = "customers.service", histogram = true)
 public class CustomerService implements UserDetailsService {
     CustomerRepository customerRepository;
     JWTService jwtService;
     ModelMapper modelMapper;
     BCryptPasswordEncoder encoder;
     CustomerValidator customerValidator;
+    RefreshTokenService refreshTokenService;
+    CustomerSearchIndex searchIndex;
+    CustomerEventOutbox eventOutbox;
 
     /**
      * @Description Registers a new customer after validating the provided information.
      * @Param request The registration request containing user details.
      * @Throws FieldValidationException If validation fails.
      */
+    @Transactional
     public void validateAndSaveUser(RegisterDTO request) {
         Role role = customerValidator.validateRegisterDTO(request);
 
@@ -58,12 +68,14 @@ public class CustomerService implements UserDetailsService {
         user.setRole(role);
 
         customerRepository.save(user);
+        eventOutbox.append(CustomerEvent.Type.REGISTERED, user);
+        AfterCommit.run(() -> searchIndex.put(user));
     }
 
     /**
      * @Description Authenticates a user and generates a JWT token if credentials are valid.
      * @Param request The login request containing username and password.
-     * @Return JWTResponseDTO containing the generated token.
+     * @Return JWTResponseDTO containing the generated token and a refresh token.
      * @Throws FieldValidationException If authentication fails.
      */
     public ResponseModel<TokenDTO> validateUserAndReturnToken(LoginDTO request) {
@@ -72,21 +84,64 @@ public class CustomerService implements UserDetailsService {
 
         //generate token
         TokenDTO tokenDTO = generateToken(user);
+        tokenDTO.setRefreshToken(refreshTokenService.issue(user.getId()));
 
         return new ResponseModel<>(true, tokenDTO);
     }
 
+    /**
+     * @Description Exchanges a refresh token for a new access token and a new refresh token.
+     * No password check is involved; the refresh token itself is consumed.
+     * @Param refreshToken The refresh token received at login or at the previous refresh.
+     * @Return TokenDTO containing the new token pair.
+     * @Throws FieldValidationException If the refresh token is invalid or its customer no longer exists.
+     */
+    // Rotation and the customer check commit together; the revocations below must survive the rejection
+    @Transactional(noRollbackFor = FieldValidationException.class)
+    public ResponseModel<TokenDTO> refreshToken(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+
+        Optional<Customer> found = customerRepository.findWithRoleById(rotation.customerId());
+        if (found.isEmpty()) {
+            // Deleted meanwhile: the successor just issued must not outlive the request
+            refreshTokenService.revokeCustomer(rotation.customerId());
+            throw new FieldValidationException("refreshToken", "invalid");
+        }
+        Customer customer = found.get();
+
+        TokenDTO tokenDTO = generateToken(customer);
+        tokenDTO.setRefreshToken(rotation.refreshToken());
+
+        return new ResponseModel<>(true, tokenDTO);
+    }
+
+    /**
+     * @Description Logs the customer out: revokes the access token and every refresh token of the customer,
+     * so neither can be used to get a new token pair.
+     * @Param accessToken The access token of the request, without the Bearer prefix.
+     */
+    public void logout(String accessToken) {
+        String username = jwtService.extractUsername(accessToken);
+        jwtService.revokeToken(accessToken);
+        customerRepository.findByUsername(username)
+                .ifPresent(customer -> refreshTokenService.revokeCustomer(customer.getId()));
+    }
+
     /**
      * @Description Loads user details by username for Spring Security authentication.
      * @Param username The username to load.
      * @Return UserDetails containing user information.
      * @Throws FieldValidationException If the user is not found.
      */
-    @Transactional(readOnly = true)
+    // Not read-only: with a replica, read-only work may see a lagging copy, and the principal decides what the
+    // request may do (a just-deleted customer, a changed role). It also keeps replica rows out of the
+    // natural-id and entity caches.
+    @Transactional
     @Override
     public UserDetails loadUserByUsername(String username) {
+        // Natural-id lookup (cached); the role is unproxied here because the principal outlives the session
         return customerRepository.findByUsername(username)
-                .map(customer -> new UserPrincipal(customer.getUsername(), customer.getRole()))
+                .map(customer -> new UserPrincipal(customer.getUsername(), Hibernate.unproxy(customer.getRole(), Role.class)))
                 .orElse(null);
     }
 
@@ -132,16 +187,21 @@ public class CustomerService implements UserDetailsService {
     }
 
     /**
-     * @Description Deletes a customer by their ID.
+     * @Description Soft-deletes a customer by their ID: a single row update, after which every read skips them.
+     * Their refresh tokens are revoked in the same transaction. The row itself is removed later by CustomerPurger.
      * @Param id The customer's ID.
      * @Throws FieldValidationException If the customer does not exist.
      */
+    @Transactional
     public void deleteCustomer(Long id) {
-        if (!customerRepository.existsById(id)) {
-            throw new FieldValidationException("user", "not exist");
-        }
+        Customer customer = customerRepository.findCustomerById(id)
+                .orElseThrow(() -> new FieldValidationException("user", "not exist"));
 
-        this.customerRepository.deleteById(id);
+        customer.setDeletedAt(Instant.now());
+        this.customerRepository.save(customer);
+        refreshTokenService.revokeCustomer(id);
+        eventOutbox.append(CustomerEvent.Type.DELETED, customer);
+        AfterCommit.run(() -> searchIndex.remove(id));
     }
 
     /**
@@ -151,12 +211,13 @@ public class CustomerService implements UserDetailsService {
      * @Return A map possibly containing a new JWT token.
      * @Throws FieldValidationException If validation fails.
      */
+    @Transactional
     public TokenDTO editCustomer(EditCustomerDTO editCustomerDTO) {
         //validate data
         customerValidator.validateEditDTO(editCustomerDTO);
 
         //Find customer
-        Customer customer = this.customerRepository.findCustomerById(editCustomerDTO.getId()).get();
+        Customer customer = this.customerRepository.findWithRoleById(editCustomerDTO.getId()).get();
 
         //map new values
         modelMapper.map(editCustomerDTO, customer);
@@ -164,6 +225,8 @@ public class CustomerService implements UserDetailsService {
 
         //save
         this.customerRepository.save(customer);
+        eventOutbox.append(CustomerEvent.Type.UPDATED, customer);
+        AfterCommit.run(() -> searchIndex.put(customer));
 
         //return new token
         return generateToken(customer);
@@ -177,12 +240,22 @@ public class CustomerService implements UserDetailsService {
         return new ResponseModel<>(true, customers);
     }
 
+    /**
+     * @Description Searches customers by username, full name and email from the in-memory index.
+     * @Param query One or more words; each is matched as a prefix, with a typo-tolerant fallback.
+     * @Param limit Maximum number of results.
+     * @Return The best matches, exact and prefix matches first.
+     * @Throws FieldValidationException If the query is empty.
+     */
+    public ResponseModel<List<CustomerSearchDTO>> searchCustomers(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new FieldValidationException("q", "must not be empty");
+        }
+        return new ResponseModel<>(true, searchIndex.search(query, limit));
+    }
+
     private TokenDTO generateToken(Customer customer) {
-        UserPrincipal userPrincipal = new UserPrincipal(
-                customer.getUsername(),
-                List.of(new SimpleGrantedAuthority("ROLE_" + customer.getRole().getName())),
-                customer.getRole()
-        );
+        UserPrincipal userPrincipal = new UserPrincipal(customer.getUsername(), customer.getRole());
         return new TokenDTO(jwtService.generateToken(userPrincipal));
     }
 }
@@ -1,18 +1,25 @@
 package kdaniel.customers.service;
 
 import io.jsonwebtoken.*;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Metrics;
+import kdaniel.customers.util.TokenFailureLog;
 import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import io.jsonwebtoken.security.Keys;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 /**
  * @Author Kiszel Dániel
@@ -22,16 +29,29 @@ import java.util.function.Function;
  *              and authorize users in the application by creating and validating JWT tokens.
  */
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Timed(value = "customers.jwt", histogram = true)
 public class JWTService {
 
+    private static final TokenFailureLog FAILURES =
+            new TokenFailureLog(JWTService.class, Duration.ofSeconds(10), Metrics.globalRegistry);
+
     @Value("${jwt.secret}")
     String secretKey;
 
     @Value("${jwt.expiration}")
     Long secretExpiration;
 
+    // Optional so the service also works stand-alone (unit tests, benchmarks) without a revocation list
+    @NonFinal
+    RevocationService revocationService;
+
+    @Autowired(required = false)
+    public void setRevocationService(RevocationService revocationService) {
+        this.revocationService = revocationService;
+    }
+
     /**
      * Extracts the username (subject) from the given JWT token.
      *
@@ -59,12 +79,14 @@ public class JWTService {
     }
 
     /**
-     * Extracts all claims from the JWT token.
+     * Extracts all claims from the JWT token, verifying its signature.
+     * Callers that need several claims, like JwtFilter, parse once here and pass the claims on.
      *
      * @param token The JWT token to extract claims from.
-     * @return The claims extracted from the token.
+     * @return The claims extracted from the token, or null if it has expired.
+     * @throws JwtException If the token is malformed or its signature does not match.
      */
-    private Claims extractAllClaims(String token) {
+    public Claims extractAllClaims(String token) {
         try {
             return Jwts
                     .parserBuilder()
@@ -74,52 +96,65 @@ public class JWTService {
                     .getBody();  // Get the body (claims) of the token.
         } catch (ExpiredJwtException e) {
             // Handle expired token
-            System.out.println("The token is expired: " + e.getMessage());
+            FAILURES.record(TokenFailureLog.Reason.EXPIRED, e.getMessage());
             return null;
         } catch (JwtException | IllegalArgumentException e) {
             // Handle other JWT-related exceptions (e.g., malformed token)
-            System.out.println("Invalid token: " + e.getMessage());
+            FAILURES.record(TokenFailureLog.Reason.of(e), e.getMessage());
             throw e;  // Optionally rethrow or handle invalid token logic
         }
     }
 
     /**
      * Validates whether the JWT token is still valid for the given user.
+     * The token is parsed once; subject, expiration and revocation are checked on the same claims.
      *
      * @param token The JWT token to validate.
      * @param userDetails The user details for validation.
      * @return True if the token is valid, false otherwise.
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);  // Extract the username from the token.
-        if(username == null) return false;
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);  // Validate by comparing username and checking expiration.
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
     /**
-     * Checks if the JWT token has expired.
+     * Validates already parsed claims for the given user, without parsing the token again.
      *
-     * @param token The JWT token to check for expiration.
-     * @return True if the token has expired, false otherwise.
+     * @param claims The claims from extractAllClaims; null for an expired token.
+     * @param userDetails The user details for validation.
+     * @return True if the token is valid, false otherwise.
      */
-    private boolean isTokenExpired(String token) {
-        try {
-            Date expirationDate = extractExpiration(token);
-            return expirationDate.before(new Date());
-        } catch (Exception e) {
-            System.out.println("Error checking token expiration: " + e.getMessage());
-            return true;
-        }
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        if(claims == null) return false;
+        return userDetails.getUsername().equals(claims.getSubject())
+                && !isTokenExpired(claims)
+                && !isRevoked(claims);
     }
 
     /**
-     * Extracts the expiration date from the JWT token.
+     * Revokes the given token until its expiry, e.g. on logout.
      *
-     * @param token The JWT token to extract the expiration from.
-     * @return The expiration date of the token.
+     * @param token The JWT token to revoke.
      */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);  // Extract the expiration claim from the token.
+    public void revokeToken(String token) {
+        final Claims claims = extractAllClaims(token);
+        if(claims == null || revocationService == null) return;  // An expired token needs no revocation.
+        revocationService.revoke(claims.getId(), claims.getExpiration().toInstant());
+    }
+
+    /**
+     * Checks if the JWT token has expired.
+     *
+     * @param claims The claims of the token to check for expiration.
+     * @return True if the token has expired, false otherwise.
+     */
+    private boolean isTokenExpired(Claims claims) {
+        Date expirationDate = claims.getExpiration();
+        return expirationDate == null || expirationDate.before(new Date());
+    }
+
+    private boolean isRevoked(Claims claims) {
+        return revocationService != null && revocationService.isRevoked(claims.getId());
     }
 
     /**
@@ -140,6 +175,7 @@ public class JWTService {
         return Jwts.builder()
                 .setClaims(claims)  // Set the claims in the token.
                 .setSubject(userDetails.getUsername())  // Set the subject (username) of the token.
+                .setId(UUID.randomUUID().toString())  // Set the token id (jti), the key for revocation.
                 .setIssuedAt(new Date())  // Set the issue date of the token.
                 .setExpiration(new Date(System.currentTimeMillis() + secretExpiration))  // Set the expiration date of the token.
                 .signWith(Keys.hmacShaKeyFor(secretKey.getBytes()), SignatureAlgorithm.HS256)  // Sign the token using the secret key.
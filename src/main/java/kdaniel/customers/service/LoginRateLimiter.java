@@ -0,0 +1,172 @@
+package kdaniel.customers.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import kdaniel.customers.util.RateLimitExceededException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Per-username and per-IP token buckets in front of /auth/login.
+ * Runs before the database lookup and BCrypt, so rejected attempts cost a hash and a CAS.
+ * Each limit is a fixed-size, lock-free table of GCRA buckets (one long per slot), so memory is
+ * bounded no matter how many distinct usernames or addresses are tried. A bucket that has refilled
+ * is indistinguishable from an empty slot, so idle entries expire without a sweeper. Keys that
+ * collide share a bucket, which can only make the limit stricter, never looser.
+ * A successful login resets its username bucket, so the username limit acts as a lockout
+ * against guessing rather than throttling a legitimate user.
+ */
+@Service
+public class LoginRateLimiter {
+
+    public static final String USERNAME = "username";
+    public static final String IP = "ip";
+
+    private final boolean enabled;
+    private final Buckets usernames;
+    private final Buckets addresses;
+    private final Counter usernameRejections;
+    private final Counter ipRejections;
+    private final LongSupplier clock;
+    private final long origin;
+
+    @Autowired
+    public LoginRateLimiter(@Value("${login.rate-limit.enabled}") boolean enabled,
+                            @Value("${login.rate-limit.slots}") int slots,
+                            @Value("${login.rate-limit.username.capacity}") int usernameCapacity,
+                            @Value("${login.rate-limit.username.period}") Duration usernamePeriod,
+                            @Value("${login.rate-limit.ip.capacity}") int ipCapacity,
+                            @Value("${login.rate-limit.ip.period}") Duration ipPeriod,
+                            MeterRegistry meterRegistry) {
+        this(enabled, slots, usernameCapacity, usernamePeriod, ipCapacity, ipPeriod, meterRegistry, System::nanoTime);
+    }
+
+    LoginRateLimiter(boolean enabled, int slots,
+                     int usernameCapacity, Duration usernamePeriod,
+                     int ipCapacity, Duration ipPeriod,
+                     MeterRegistry meterRegistry, LongSupplier clock) {
+        this.enabled = enabled;
+        this.usernames = new Buckets(slots, usernameCapacity, usernamePeriod);
+        this.addresses = new Buckets(slots, ipCapacity, ipPeriod);
+        this.usernameRejections = rejections(meterRegistry, USERNAME);
+        this.ipRejections = rejections(meterRegistry, IP);
+        this.clock = clock;
+        // Bucket times are relative to startup, so an all-zero table means every bucket is full
+        this.origin = clock.getAsLong();
+    }
+
+    /**
+     * @Description Takes one token from the client address bucket, then one from the username bucket.
+     * @Throws RateLimitExceededException If either bucket is empty.
+     */
+    public void checkLogin(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong() - origin;
+        long ipKey = addresses.hash(clientIp == null ? "" : clientIp);
+        long waitNanos = addresses.tryAcquire(ipKey, now);
+        if (waitNanos > 0) {
+            ipRejections.increment();
+            throw new RateLimitExceededException(IP, toRetryAfterSeconds(waitNanos));
+        }
+        long usernameKey = usernames.hash(normalize(username));
+        waitNanos = usernames.tryAcquire(usernameKey, now);
+        if (waitNanos > 0) {
+            usernameRejections.increment();
+            throw new RateLimitExceededException(USERNAME, toRetryAfterSeconds(waitNanos));
+        }
+    }
+
+    /**
+     * @Description Clears the username bucket after a successful login.
+     */
+    public void loginSucceeded(String username) {
+        if (enabled) {
+            usernames.reset(usernames.hash(normalize(username)));
+        }
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.toLowerCase(Locale.ROOT);
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static Counter rejections(MeterRegistry registry, String limit) {
+        return Counter.builder("customers.login.rejected")
+                .description("Login attempts rejected by the rate limiter")
+                .tag("limit", limit)
+                .register(registry);
+    }
+
+    /**
+     * Fixed-size table of GCRA buckets. A slot holds the "theoretical arrival time" of the next
+     * request; the bucket is full when that time is in the past.
+     */
+    private static final class Buckets {
+
+        private final AtomicLongArray arrivals;
+        private final AtomicLongArray owners;
+        private final int mask;
+        private final long interval;
+        private final long tolerance;
+        // Per-instance seed, so colliding keys cannot be precomputed
+        private final long seed = ThreadLocalRandom.current().nextLong();
+
+        Buckets(int slots, int capacity, Duration period) {
+            int size = Integer.highestOneBit(Math.max(16, slots) - 1) << 1;
+            this.arrivals = new AtomicLongArray(size);
+            this.owners = new AtomicLongArray(size);
+            this.mask = size - 1;
+            this.interval = period.toNanos() / capacity;
+            this.tolerance = period.toNanos();
+        }
+
+        long hash(String key) {
+            long h = seed;
+            for (int i = 0; i < key.length(); i++) {
+                h = (h ^ key.charAt(i)) * 0x100000001b3L;
+            }
+            return h ^ (h >>> 29);
+        }
+
+        /**
+         * @Return 0 if a token was taken, otherwise the nanoseconds until one is available.
+         */
+        long tryAcquire(long key, long now) {
+            int slot = (int) key & mask;
+            while (true) {
+                long arrival = arrivals.get(slot);
+                long next = Math.max(arrival - now, 0) + interval;
+                if (next > tolerance) {
+                    return next - tolerance;
+                }
+                if (arrivals.compareAndSet(slot, arrival, now + next)) {
+                    owners.lazySet(slot, key);
+                    return 0;
+                }
+            }
+        }
+
+        void reset(long key) {
+            int slot = (int) key & mask;
+            // Only the last key that used the slot may clear it, so a colliding key cannot unlock another
+            if (owners.get(slot) == key) {
+                arrivals.set(slot, 0);
+            }
+        }
+    }
+}
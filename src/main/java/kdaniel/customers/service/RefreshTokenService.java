@@ -0,0 +1,204 @@
+package kdaniel.customers.service;
+
+import kdaniel.customers.model.RefreshToken;
+import kdaniel.customers.repository.RefreshTokenRepository;
+import kdaniel.customers.util.AfterCommit;
+import kdaniel.customers.util.FieldValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Issues and rotates opaque refresh tokens.
+ * The client gets 32 random bytes (base64url); only their SHA-256 hash is stored. Active tokens
+ * are also kept in an in-memory index keyed by the hash, so a refresh needs no SELECT and no
+ * password hashing: one index lookup, one conditional UPDATE and one INSERT for the successor.
+ * New and revoked tokens reach the index only after their transaction commits; a used token leaves
+ * it at once, and anything missing from the index is looked up in the table.
+ * Every refresh rotates the token. Presenting an already rotated token means it was copied, so the
+ * whole family (every token descended from the same login) is revoked.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int TOKEN_BYTES = 32;
+
+    /**
+     * Result of a successful rotation: whose token it was and the token replacing it.
+     */
+    public record Rotation(Long customerId, String refreshToken) {
+    }
+
+    /**
+     * Index value for an active token. The key is the 32-byte hash packed into four longs.
+     */
+    private record Entry(long id, long customerId, long familyId, Instant expiresAt) {
+    }
+
+    private record Key(long a, long b, long c, long d) {
+        static Key of(byte[] hash) {
+            ByteBuffer buffer = ByteBuffer.wrap(hash);
+            return new Key(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+        }
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration expiration;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<Key, Entry> index = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh.expiration}") Duration expiration) {
+        this(refreshTokenRepository, expiration, Clock.systemUTC());
+    }
+
+    RefreshTokenService(RefreshTokenRepository refreshTokenRepository, Duration expiration, Clock clock) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.expiration = expiration;
+        this.clock = clock;
+    }
+
+    /**
+     * @Description Issues the first token of a new family, e.g. at login.
+     */
+    @Transactional
+    public String issue(Long customerId) {
+        return issue(customerId, random.nextLong());
+    }
+
+    /**
+     * @Description Consumes a refresh token and issues its successor in the same family.
+     * @Throws FieldValidationException If the token is unknown, expired or already used.
+     */
+    // A revoked family must stay revoked although the request is rejected
+    @Transactional(noRollbackFor = FieldValidationException.class)
+    public Rotation rotate(String refreshToken) {
+        byte[] hash = hash(refreshToken);
+        Key key = Key.of(hash);
+        Instant now = clock.instant();
+
+        // Removing from the index claims the token for this request
+        Entry entry = index.remove(key);
+        if (entry == null) {
+            entry = loadUnindexed(hash);
+        }
+        if (!entry.expiresAt().isAfter(now)) {
+            throw invalid();
+        }
+        // The conditional update is the authoritative claim, also against other instances
+        if (refreshTokenRepository.markUsed(entry.id()) == 0) {
+            revokeFamily(entry.familyId());
+            throw invalid();
+        }
+        return new Rotation(entry.customerId(), issue(entry.customerId(), entry.familyId()));
+    }
+
+    /**
+     * @Description Revokes every refresh token of a customer, e.g. at logout; each family ends here.
+     */
+    @Transactional
+    public void revokeCustomer(Long customerId) {
+        refreshTokenRepository.deleteByCustomerIds(List.of(customerId));
+        AfterCommit.run(() -> index.values().removeIf(entry -> entry.customerId() == customerId));
+    }
+
+    /**
+     * @Description Rebuilds the index from the table; tokens issued before a restart stay usable.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadIndex() {
+        for (RefreshToken token : refreshTokenRepository.findByUsedFalseAndExpiresAtAfter(clock.instant())) {
+            index.put(Key.of(token.getTokenHash()), entry(token));
+        }
+    }
+
+    /**
+     * @Description Drops expired tokens, used ones included, from the table and the index.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh.cleanup-interval}", initialDelayString = "${jwt.refresh.cleanup-interval}")
+    @Transactional
+    public void deleteExpired() {
+        Instant now = clock.instant();
+        index.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+        int deleted = refreshTokenRepository.deleteExpired(now);
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String issue(Long customerId, long familyId) {
+        byte[] raw = new byte[TOKEN_BYTES];
+        random.nextBytes(raw);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+        byte[] hash = hash(token);
+
+        RefreshToken saved = refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash)
+                .customerId(customerId)
+                .familyId(familyId)
+                .expiresAt(clock.instant().plus(expiration))
+                .build());
+        // Indexed once committed: a rolled back successor must not be found by the next refresh
+        Entry entry = entry(saved);
+        AfterCommit.run(() -> index.put(Key.of(hash), entry));
+        return token;
+    }
+
+    private Entry loadUnindexed(byte[] hash) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash).orElseThrow(RefreshTokenService::invalid);
+        if (stored.isUsed()) {
+            // A rotated token came back: someone else holds a copy of this family
+            revokeFamily(stored.getFamilyId());
+            throw invalid();
+        }
+        return entry(stored);
+    }
+
+    private void revokeFamily(long familyId) {
+        refreshTokenRepository.deleteByFamily(familyId);
+        // Deferred like the puts, so a successor indexed by the same transaction is dropped after it
+        AfterCommit.run(() -> index.values().removeIf(entry -> entry.familyId() == familyId));
+        log.atWarn().addKeyValue("familyId", familyId).log("Refresh token reuse detected, family revoked");
+    }
+
+    private static Entry entry(RefreshToken token) {
+        return new Entry(token.getId(), token.getCustomerId(), token.getFamilyId(), token.getExpiresAt());
+    }
+
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static FieldValidationException invalid() {
+        return new FieldValidationException("refreshToken", "invalid");
+    }
+}
@@ -0,0 +1,125 @@
+package kdaniel.customers.service;
+
+import kdaniel.customers.model.RevokedToken;
+import kdaniel.customers.repository.RevokedTokenRepository;
+import kdaniel.customers.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Revocation list for access tokens, keyed by their jti.
+ * Revoked ids are persisted in the revoked_token table and mirrored into a Bloom filter. A token
+ * that was never revoked, the common case, is answered from the filter without touching the
+ * database; only filter hits (real revocations and the rare false positive) are confirmed with a
+ * primary key lookup. Rows are kept until the token would have expired anyway, and compaction
+ * deletes them and rebuilds the filter from what is left.
+ */
+@Service
+public class RevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(RevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final Clock clock;
+
+    private volatile BloomFilter filter;
+    // Set while compaction rebuilds the filter, so revocations made meanwhile land in both
+    private volatile BloomFilter next;
+    // Until the filter is loaded at startup every check goes to the table
+    private volatile boolean loaded;
+
+    @Autowired
+    public RevocationService(RevokedTokenRepository revokedTokenRepository,
+                             @Value("${jwt.revocation.expected-entries}") long expectedEntries,
+                             @Value("${jwt.revocation.false-positive-rate}") double falsePositiveRate) {
+        this(revokedTokenRepository, expectedEntries, falsePositiveRate, Clock.systemUTC());
+    }
+
+    RevocationService(RevokedTokenRepository revokedTokenRepository, long expectedEntries,
+                      double falsePositiveRate, Clock clock) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.clock = clock;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    /**
+     * @Description Revokes a token until its own expiry. Revoking twice is harmless.
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || !expiresAt.isAfter(clock.instant())) {
+            return;
+        }
+        // Committed before the id reaches the filter, so a rebuild reading the table cannot miss it
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt));
+        // 'next' is read before 'filter': if no rebuild is running yet, a later one reads the id from the
+        // table, and if one has just finished, 'filter' is already its result. Read the other way round,
+        // a rebuild finishing in between would swap in a filter that has neither seen the id nor received it.
+        BloomFilter rebuilding = next;
+        if (rebuilding != null) {
+            rebuilding.put(jti);
+        }
+        filter.put(jti);
+    }
+
+    /**
+     * @Description True if the token with this jti was revoked. Tokens without a jti cannot be revoked.
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        if (loaded && !filter.mightContain(jti)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(jti);
+    }
+
+    /**
+     * @Description Builds the filter from the table; revocations survive a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+        loaded = true;
+    }
+
+    /**
+     * @Description Deletes revocations of tokens that have expired since and shrinks the filter accordingly.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.compaction-interval}", initialDelayString = "${jwt.revocation.compaction-interval}")
+    public void compact() {
+        int deleted = revokedTokenRepository.deleteExpired(clock.instant());
+        if (deleted > 0) {
+            rebuild();
+            log.info("Compacted {} expired token revocations", deleted);
+        }
+    }
+
+    private synchronized void rebuild() {
+        long active = revokedTokenRepository.countByExpiresAtAfter(clock.instant());
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, active * 2), falsePositiveRate);
+        next = rebuilt;
+        // Re-read after publishing 'next': anything committed before this query is in the result,
+        // anything revoked after 'next' was set is put into it directly
+        for (String jti : revokedTokenRepository.findActiveIds(clock.instant())) {
+            rebuilt.put(jti);
+        }
+        filter = rebuilt;
+        next = null;
+    }
+}
@@ -0,0 +1,20 @@
+package kdaniel.customers.util;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a client exceeds a rate limit. Carries no stack trace: it is expected under
+ * attack and must stay cheap to throw.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final String limit;
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String limit, long retryAfterSeconds) {
+        super("Too many attempts", null, false, false);
+        this.limit = limit;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,104 @@
+package kdaniel.customers.util;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Sampled, structured log for rejected JWT tokens.
+ * Every failure is counted in the "customers.jwt.failures" counter, but at most one log line
+ * per reason is written per window; the line carries how many identical failures were suppressed.
+ * A client replaying bad tokens therefore costs a counter increment, not a log write.
+ */
+public final class TokenFailureLog {
+
+    public enum Reason {
+        EXPIRED("expired", Level.INFO),
+        MALFORMED("malformed", Level.WARN),
+        BAD_SIGNATURE("bad_signature", Level.WARN),
+        UNSUPPORTED("unsupported", Level.WARN),
+        INVALID("invalid", Level.WARN);
+
+        private final String tag;
+        private final Level level;
+
+        Reason(String tag, Level level) {
+            this.tag = tag;
+            this.level = level;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        /**
+         * Maps an exception thrown while parsing a token to its failure reason.
+         */
+        public static Reason of(Exception e) {
+            if (e instanceof ExpiredJwtException) return EXPIRED;
+            if (e instanceof io.jsonwebtoken.security.SecurityException) return BAD_SIGNATURE;
+            if (e instanceof MalformedJwtException) return MALFORMED;
+            if (e instanceof UnsupportedJwtException) return UNSUPPORTED;
+            return INVALID;
+        }
+    }
+
+    private static final Reason[] REASONS = Reason.values();
+
+    private final Logger log;
+    private final long windowNanos;
+    private final Counter[] counters = new Counter[REASONS.length];
+    private final AtomicLong[] nextLogAt = new AtomicLong[REASONS.length];
+    private final LongAdder[] suppressed = new LongAdder[REASONS.length];
+
+    public TokenFailureLog(Class<?> owner, Duration window, MeterRegistry registry) {
+        this.log = LoggerFactory.getLogger(owner);
+        this.windowNanos = window.toNanos();
+        long now = System.nanoTime();
+        for (Reason reason : REASONS) {
+            counters[reason.ordinal()] = Counter.builder("customers.jwt.failures")
+                    .description("Rejected JWT tokens by reason")
+                    .tag("reason", reason.tag)
+                    .register(registry);
+            nextLogAt[reason.ordinal()] = new AtomicLong(now);
+            suppressed[reason.ordinal()] = new LongAdder();
+        }
+    }
+
+    /**
+     * Counts a failure and logs it unless another failure with the same reason was already
+     * logged in the current window.
+     *
+     * @param reason The failure reason.
+     * @param detail A short description of the failure, e.g. the exception message.
+     * @return True if the failure was written to the log, false if it was suppressed.
+     */
+    public boolean record(Reason reason, String detail) {
+        int i = reason.ordinal();
+        counters[i].increment();
+
+        long now = System.nanoTime();
+        long due = nextLogAt[i].get();
+        if (now - due < 0 || !nextLogAt[i].compareAndSet(due, now + windowNanos)) {
+            suppressed[i].increment();
+            return false;
+        }
+
+        log.atLevel(reason.level)
+                .addKeyValue("reason", reason.tag)
+                .addKeyValue("suppressed", suppressed[i].sumThenReset())
+                .log("JWT rejected: {}", detail);
+        return true;
+    }
+}
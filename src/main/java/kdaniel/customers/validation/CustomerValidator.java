@@ -27,7 +27,8 @@ public class CustomerValidator {
     BCryptPasswordEncoder encoder;
 
     public Customer validateLoginDTO(LoginDTO request) {
-        Customer user = customerRepository.findByUsername(request.getUsername())
+        // The role is needed for the token issued right after; both usually come from the second-level cache
+        Customer user = customerRepository.findCachedWithRoleByUsername(request.getUsername())
                 .orElseThrow(() -> new FieldValidationException("username", "not found"));
 
         if (!encoder.matches(request.getPassword(), user.getPassword())) {
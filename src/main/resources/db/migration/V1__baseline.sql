@@ -0,0 +1,39 @@
+-- Schema as previously created by Hibernate (ddl-auto: update)
+
+CREATE TABLE role (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_role_name UNIQUE (name)
+);
+
+CREATE TABLE customer (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username   VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    full_name  VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    age        TINYINT      NOT NULL,
+    role_id    BIGINT       NOT NULL,
+    created_at DATE,
+    updated_at DATE,
+    CONSTRAINT uk_customer_username UNIQUE (username),
+    CONSTRAINT uk_customer_email UNIQUE (email),
+    CONSTRAINT fk_customer_role FOREIGN KEY (role_id) REFERENCES role (id)
+);
+
+CREATE TABLE refresh_token (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token_hash  VARBINARY(32)               NOT NULL,
+    customer_id BIGINT                      NOT NULL,
+    family_id   BIGINT                      NOT NULL,
+    expires_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    used        BOOLEAN                     NOT NULL,
+    CONSTRAINT uk_refresh_token_hash UNIQUE (token_hash)
+);
+
+CREATE INDEX idx_refresh_token_family ON refresh_token (family_id);
+
+CREATE TABLE revoked_token (
+    jti        VARCHAR(36)                 NOT NULL PRIMARY KEY,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,18 @@
+-- Case-insensitive username/email lookups: lower-cased copies maintained by the application
+-- (Customer @PrePersist/@PreUpdate), each backed by a unique index that every lookup seeks on.
+
+ALTER TABLE customer ADD COLUMN normalized_username VARCHAR(255);
+ALTER TABLE customer ADD COLUMN normalized_email VARCHAR(255);
+
+UPDATE customer SET normalized_username = LOWER(username), normalized_email = LOWER(email);
+
+ALTER TABLE customer ALTER COLUMN normalized_username SET NOT NULL;
+ALTER TABLE customer ALTER COLUMN normalized_email SET NOT NULL;
+
+CREATE UNIQUE INDEX uk_customer_normalized_username ON customer (normalized_username);
+CREATE UNIQUE INDEX uk_customer_normalized_email ON customer (normalized_email);
+
+-- The case-sensitive constraints are implied by the new ones; dropping them saves two index writes per insert.
+-- A baselined database carries Hibernate's generated constraint names instead and keeps those.
+ALTER TABLE customer DROP CONSTRAINT IF EXISTS uk_customer_username;
+ALTER TABLE customer DROP CONSTRAINT IF EXISTS uk_customer_email;
@@ -0,0 +1,15 @@
+-- Replaces data.sql. MERGE makes the seed idempotent, also on a baselined database that already has these rows.
+
+MERGE INTO role (id, name) KEY (id)
+VALUES (1, 'USER'),
+       (2, 'ADMIN');
+
+-- The ids above were given explicitly; new roles continue after them
+ALTER TABLE role ALTER COLUMN id RESTART WITH 3;
+
+MERGE INTO customer (username, normalized_username, password, full_name, email, normalized_email, age, role_id)
+    KEY (normalized_username)
+VALUES ('jhorvath', 'jhorvath', 'password1', 'János Horváth', 'j.horvath@example.hu', 'j.horvath@example.hu', 35, 2),
+       ('e.kiss', 'e.kiss', 'password2', 'Éva Kiss', 'eva.kiss@example.hu', 'eva.kiss@example.hu', 28, 2),
+       ('inagy', 'inagy', 'password3', 'István Nagy', 'istvan.nagy@example.hu', 'istvan.nagy@example.hu', 42, 1),
+       ('b.toth', 'b.toth', 'password4', 'Béla Tóth', 'bela.toth@example.hu', 'bela.toth@example.hu', 50, 1);
@@ -0,0 +1,7 @@
+-- Soft delete: deleteCustomer only stamps deleted_at, and every customer read filters on it.
+-- CustomerPurger removes the stamped rows later in small batches, off the request path.
+
+ALTER TABLE customer ADD COLUMN deleted_at TIMESTAMP(6) WITH TIME ZONE;
+
+-- Lets the purger find its next batch without scanning the live rows
+CREATE INDEX idx_customer_deleted_at ON customer (deleted_at);
@@ -0,0 +1,15 @@
+-- Transactional outbox of customer changes. CustomerService appends a row in the same transaction as
+-- the change; CustomerEventRelay later assigns event_offset, the gapless position consumers resume from.
+
+CREATE TABLE customer_event (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_offset BIGINT,
+    customer_id  BIGINT                      NOT NULL,
+    type         VARCHAR(16)                 NOT NULL,
+    username     VARCHAR(255),
+    full_name    VARCHAR(255),
+    email        VARCHAR(255),
+    age          TINYINT,
+    occurred_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_customer_event_offset UNIQUE (event_offset)
+);
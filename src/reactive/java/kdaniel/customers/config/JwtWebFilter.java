@@ -0,0 +1,93 @@
+package kdaniel.customers.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import kdaniel.customers.model.UserPrincipal;
+import kdaniel.customers.repository.ReactiveCustomerReader;
+import kdaniel.customers.service.JWTService;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description WebFlux port of JwtFilter.
+ * Validates the bearer token, loads the principal over R2DBC and puts the authentication into the
+ * reactive security context. Registered only inside the security chain, not as a global WebFilter.
+ */
+public class JwtWebFilter implements WebFilter {
+
+    private static final byte[] USERNAME_NOT_FOUND =
+            "{\"username\":\"Username not found\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] INVALID_TOKEN =
+            "{\"token\":\"Invalid token\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final JWTService jwtService;
+    private final ReactiveCustomerReader customerReader;
+
+    public JwtWebFilter(JWTService jwtService, ReactiveCustomerReader customerReader) {
+        this.jwtService = jwtService;
+        this.customerReader = customerReader;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        final String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        // If the Authorization header is missing or does not start with "Bearer ", continue the filter chain
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        final String jwt = authHeader.substring(7);
+        if (JwtPreValidator.check(jwt) != null) {
+            return unauthorized(exchange.getResponse(), INVALID_TOKEN);
+        }
+
+        // Parsed once; the username and the validity check below both use these claims
+        final Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return unauthorized(exchange.getResponse(), INVALID_TOKEN);
+        }
+        final String username = claims == null ? null : claims.getSubject();
+        if (username == null) {
+            return chain.filter(exchange);
+        }
+
+        // The validity check may query the revocation table, so it leaves the event loop
+        return customerReader.findPrincipal(username)
+                .flatMap(userDetails -> Mono.fromCallable(() -> jwtService.isTokenValid(claims, userDetails))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .map(valid -> valid
+                                ? chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication(userDetails)))
+                                : chain.filter(exchange)))
+                .switchIfEmpty(Mono.fromSupplier(() -> unauthorized(exchange.getResponse(), USERNAME_NOT_FOUND)))
+                .flatMap(Function.identity());
+    }
+
+    private static UsernamePasswordAuthenticationToken authentication(UserPrincipal userDetails) {
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    private static Mono<Void> unauthorized(ServerHttpResponse response, byte[] body) {
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
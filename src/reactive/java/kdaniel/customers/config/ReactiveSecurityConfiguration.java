@@ -0,0 +1,66 @@
+package kdaniel.customers.config;
+
+import kdaniel.customers.repository.ReactiveCustomerReader;
+import kdaniel.customers.service.JWTService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import java.util.List;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Security chain of the reactive stack.
+ * Mirrors SecurityFilterConfiguration; the ADMIN checks done by @PreAuthorize on the servlet
+ * controller are expressed as path rules here.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfiguration {
+
+    @Value("${cors.allowed-origins}")
+    private List<String> allowedOrigins;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JWTService jwtService,
+                                                         ReactiveCustomerReader customerReader) {
+        return http
+                // Disable CSRF since we are using JWT
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                // Stateless: the security context lives only for the current exchange
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers("/auth/login", "/auth/register", "/auth/refresh").permitAll()
+                        .pathMatchers("/actuator/health").permitAll()
+                        .pathMatchers("/actuator/prometheus").hasRole("ADMIN")
+                        .pathMatchers(HttpMethod.GET, "/customer/averageAge", "/customer/between18And40").authenticated()
+                        .pathMatchers(HttpMethod.GET, "/customer", "/customer/*").hasRole("ADMIN")
+                        .anyExchange().authenticated())
+                .addFilterAt(new JwtWebFilter(jwtService, customerReader), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    private UrlBasedCorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(allowedOrigins);
+        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "PATCH"));
+        configuration.addAllowedHeader("*");
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+}
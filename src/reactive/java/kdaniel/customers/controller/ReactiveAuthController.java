@@ -0,0 +1,83 @@
+package kdaniel.customers.controller;
+
+import jakarta.validation.Valid;
+import kdaniel.customers.dto.auth.LoginDTO;
+import kdaniel.customers.dto.auth.RefreshTokenDTO;
+import kdaniel.customers.dto.auth.RegisterDTO;
+import kdaniel.customers.dto.auth.TokenDTO;
+import kdaniel.customers.model.ResponseModel;
+import kdaniel.customers.service.CustomerService;
+import kdaniel.customers.service.LoginRateLimiter;
+import kdaniel.customers.util.FieldValidationException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Registration and login for the reactive stack.
+ * Both go through the blocking JPA service and BCrypt, so they run on the bounded elastic
+ * scheduler instead of the event loop.
+ */
+@RestController
+@RequestMapping("/auth")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@AllArgsConstructor
+public class ReactiveAuthController {
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    CustomerService service;
+    LoginRateLimiter loginRateLimiter;
+
+    @PostMapping("/register")
+    public Mono<Void> register(@Valid @RequestBody RegisterDTO registerDTO) {
+        return Mono.fromRunnable(() -> service.validateAndSaveUser(registerDTO))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseModel<TokenDTO>> login(@Valid @RequestBody LoginDTO user, ServerHttpRequest request) {
+        // The limiter is non-blocking, so rejected attempts never leave the event loop
+        String clientIp = request.getRemoteAddress() == null ? null
+                : request.getRemoteAddress().getAddress().getHostAddress();
+        loginRateLimiter.checkLogin(user.getUsername(), clientIp);
+        return Mono.fromCallable(() -> service.validateUserAndReturnToken(user))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnSuccess(token -> loginRateLimiter.loginSucceeded(user.getUsername()));
+    }
+
+    @PostMapping("/refresh")
+    public Mono<ResponseModel<TokenDTO>> refresh(@Valid @RequestBody RefreshTokenDTO refreshTokenDTO) {
+        return Mono.fromCallable(() -> service.refreshToken(refreshTokenDTO.getRefreshToken()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * @Description Revokes the access token and every refresh token of the customer. Answers 400 without a Bearer header.
+     */
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> logout(@RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return Mono.error(new FieldValidationException(HttpHeaders.AUTHORIZATION, "missing Bearer token"));
+        }
+        return Mono.fromRunnable(() -> service.logout(authorization.substring(BEARER_PREFIX.length())))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+}
@@ -0,0 +1,59 @@
+package kdaniel.customers.controller;
+
+import kdaniel.customers.dto.customer.AverageAgeDTO;
+import kdaniel.customers.dto.customer.CustomerDTO;
+import kdaniel.customers.model.ResponseModel;
+import kdaniel.customers.repository.ReactiveCustomerReader;
+import kdaniel.customers.util.FieldValidationException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Non-blocking variant of the read-only customer endpoints, active with the 'reactive' profile.
+ * Single values keep the ResponseModel envelope; lists are streamed row by row as they are read
+ * (a JSON array, or one object per line with Accept: application/x-ndjson).
+ * Admin-only paths are enforced by ReactiveSecurityConfiguration.
+ */
+@RestController
+@RequestMapping("/customer")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@AllArgsConstructor
+public class ReactiveCustomerController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    ReactiveCustomerReader customerReader;
+
+    @GetMapping("/averageAge")
+    public Mono<ResponseModel<AverageAgeDTO>> getAverageAge() {
+        return customerReader.averageAge()
+                .map(average -> new ResponseModel<>(true, new AverageAgeDTO(average)));
+    }
+
+    @GetMapping(value = "/between18And40", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CustomerDTO> getBetween18And40() {
+        return customerReader.between18And40();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseModel<CustomerDTO>> getCustomerById(@PathVariable Long id) {
+        return customerReader.findById(id)
+                .map(customer -> new ResponseModel<>(true, customer))
+                .switchIfEmpty(Mono.error(() -> new FieldValidationException("id", "not found")));
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CustomerDTO> getCustomers(@RequestParam(defaultValue = "0") int page,
+                                          @RequestParam(defaultValue = "10") int size) {
+        return customerReader.findPage(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+    }
+}
@@ -0,0 +1,80 @@
+package kdaniel.customers.repository;
+
+import io.r2dbc.spi.Readable;
+import kdaniel.customers.dto.customer.CustomerDTO;
+import kdaniel.customers.model.Customer;
+import kdaniel.customers.model.Role;
+import kdaniel.customers.model.UserPrincipal;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Non-blocking read access to the customer table over R2DBC.
+ * Runs against the same H2 schema that Hibernate creates; only used by the reactive stack.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@AllArgsConstructor
+public class ReactiveCustomerReader {
+
+    DatabaseClient databaseClient;
+
+    public Mono<Double> averageAge() {
+        return databaseClient.sql("SELECT AVG(CAST(age AS DOUBLE)) FROM customer WHERE deleted_at IS NULL")
+                .map(row -> {
+                    Double average = row.get(0, Double.class);
+                    return average == null ? 0.0 : average;
+                })
+                .one()
+                .defaultIfEmpty(0.0);
+    }
+
+    public Flux<CustomerDTO> between18And40() {
+        return databaseClient.sql("SELECT full_name, age, email FROM customer WHERE age >= 18 AND age <= 40 AND deleted_at IS NULL")
+                .map(ReactiveCustomerReader::customerDTO)
+                .all();
+    }
+
+    public Mono<CustomerDTO> findById(Long id) {
+        return databaseClient.sql("SELECT full_name, age, email FROM customer WHERE id = :id AND deleted_at IS NULL")
+                .bind("id", id)
+                .map(ReactiveCustomerReader::customerDTO)
+                .one();
+    }
+
+    public Flux<CustomerDTO> findPage(int page, int size) {
+        return databaseClient.sql("SELECT full_name, age, email FROM customer WHERE deleted_at IS NULL ORDER BY id LIMIT :size OFFSET :offset")
+                .bind("size", size)
+                .bind("offset", (long) page * size)
+                .map(ReactiveCustomerReader::customerDTO)
+                .all();
+    }
+
+    /**
+     * @Description Reactive counterpart of CustomerService.loadUserByUsername.
+     * @Return The principal, or an empty Mono if the username is unknown.
+     */
+    public Mono<UserPrincipal> findPrincipal(String username) {
+        return databaseClient.sql("SELECT c.username, r.id AS role_id, r.name AS role_name "
+                        + "FROM customer c JOIN role r ON r.id = c.role_id WHERE c.normalized_username = :username AND c.deleted_at IS NULL")
+                .bind("username", Customer.normalize(username))
+                .map(row -> new UserPrincipal(
+                        row.get("username", String.class),
+                        new Role(row.get("role_id", Long.class), row.get("role_name", String.class))))
+                .one();
+    }
+
+    private static CustomerDTO customerDTO(Readable row) {
+        Byte age = row.get("age", Byte.class);
+        return new CustomerDTO(row.get("full_name", String.class), age == null ? 0 : age, row.get("email", String.class));
+    }
+}
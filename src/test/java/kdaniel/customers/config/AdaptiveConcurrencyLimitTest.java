@@ -0,0 +1,111 @@
+package kdaniel.customers.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void testRejectsAboveLimit() {
+        // Arrange: A limit of two concurrent requests
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, THRESHOLD);
+
+        // Act & Assert: The third concurrent request is rejected until one finishes
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        limit.release(FAST, false);
+        assertTrue(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+    }
+
+    @Test
+    void testBacksOffOnSlowOrFailedRequests() {
+        // Arrange: A limit of 20
+        AtomicLong clock = new AtomicLong();
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 2, 100, THRESHOLD, clock::get);
+
+        // Act: A run of slow and failed requests, one after the other
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire();
+            long rtt = i % 2 == 0 ? SLOW : FAST;
+            clock.addAndGet(rtt);
+            limit.release(rtt, i % 2 == 1);
+        }
+
+        // Assert: Multiplicative decrease, never below the minimum
+        assertTrue(limit.getLimit() < 10);
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            clock.addAndGet(SLOW);
+            limit.release(SLOW, false);
+        }
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    void testBurstOfSlowCompletionsBacksOffOnce() {
+        // Arrange: A limit of 20, fully used by requests that all started together
+        AtomicLong clock = new AtomicLong();
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 2, 100, THRESHOLD, clock::get);
+        int admitted = 0;
+        while (limit.tryAcquire()) {
+            admitted++;
+        }
+
+        // Act: All of them complete slowly
+        clock.addAndGet(SLOW);
+        for (int i = 0; i < admitted; i++) {
+            limit.release(SLOW, false);
+        }
+
+        // Assert: One decrease for the whole burst
+        assertEquals(18, limit.getLimit());
+
+        // Act: A request admitted after the decrease is slow as well
+        limit.tryAcquire();
+        clock.addAndGet(SLOW);
+        limit.release(SLOW, false);
+
+        // Assert: It counts again
+        assertEquals(16, limit.getLimit());
+    }
+
+    @Test
+    void testGrowsOnlyWhileSaturated() {
+        // Arrange: A limit of 4
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 100, THRESHOLD);
+
+        // Act: Many fast requests, one at a time
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, false);
+        }
+
+        // Assert: An unused limit does not grow
+        assertEquals(4, limit.getLimit());
+
+        // Act: Fast requests while the limit is fully used
+        for (int round = 0; round < 50; round++) {
+            int admitted = 0;
+            while (limit.tryAcquire()) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limit.release(FAST, false);
+            }
+        }
+
+        // Assert: Additive increase
+        assertTrue(limit.getLimit() > 4);
+        assertTrue(limit.getLimit() <= 100);
+    }
+}
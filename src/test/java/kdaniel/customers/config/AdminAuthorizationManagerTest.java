@@ -0,0 +1,57 @@
+package kdaniel.customers.config;
+
+import kdaniel.customers.model.Role;
+import kdaniel.customers.model.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdminAuthorizationManagerTest {
+
+    private final AdminAuthorizationManager manager = new AdminAuthorizationManager();
+
+    @Test
+    void testGrantsAdminPrincipal() {
+        // Arrange: An authenticated application principal with the ADMIN role
+        UserPrincipal principal = new UserPrincipal("admin", new Role(2L, "ADMIN"));
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        // Act & Assert: Access is granted
+        assertTrue(manager.authorize(() -> authentication, null).isGranted());
+    }
+
+    @Test
+    void testDeniesUserPrincipal() {
+        // Arrange: An authenticated application principal with the USER role
+        UserPrincipal principal = new UserPrincipal("user", new Role(1L, "USER"));
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        // Act & Assert: Access is denied
+        assertFalse(manager.authorize(() -> authentication, null).isGranted());
+    }
+
+    @Test
+    void testFallsBackToAuthoritiesForOtherPrincipals() {
+        // Arrange: A plain principal carrying the authority, as e.g. @WithMockUser creates it
+        Authentication authentication = new UsernamePasswordAuthenticationToken("admin", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+
+        // Act & Assert: Access is granted based on the authority
+        assertTrue(manager.authorize(() -> authentication, null).isGranted());
+    }
+
+    @Test
+    void testDeniesAnonymous() {
+        // Arrange: An anonymous request
+        Authentication authentication = new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+        // Act & Assert: Access is denied
+        assertFalse(manager.authorize(() -> authentication, null).isGranted());
+        assertFalse(manager.authorize(() -> null, null).isGranted());
+    }
+}
@@ -0,0 +1,52 @@
+package kdaniel.customers.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AdmissionControlFilterTest {
+
+    @Test
+    void testShedsRequestsAboveLimit() throws Exception {
+        // Arrange: A limit of one, already taken by a request in flight
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 1, TimeUnit.SECONDS.toNanos(1));
+        AdmissionControlFilter filter = new AdmissionControlFilter("customer", limit, registry);
+        assertTrue(limit.tryAcquire());
+
+        FilterChain filterChain = mock(FilterChain.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act: Another request arrives
+        filter.doFilter(new MockHttpServletRequest("GET", "/customer/averageAge"), response, filterChain);
+
+        // Assert: Shed with 503 and Retry-After, never reaching the chain
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        verifyNoInteractions(filterChain);
+        assertEquals(1.0, registry.get("customers.admission.rejected").tag("group", "customer").counter().count());
+    }
+
+    @Test
+    void testAdmitsAndReleases() throws Exception {
+        // Arrange: A free limit
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 8, TimeUnit.SECONDS.toNanos(1));
+        AdmissionControlFilter filter = new AdmissionControlFilter("auth", limit, registry);
+        FilterChain filterChain = mock(FilterChain.class);
+
+        // Act: A request passes through
+        filter.doFilter(new MockHttpServletRequest("POST", "/auth/login"), new MockHttpServletResponse(), filterChain);
+
+        // Assert: The chain ran and the slot was given back
+        verify(filterChain).doFilter(any(), any());
+        assertEquals(0, limit.getInFlight());
+    }
+}
@@ -0,0 +1,65 @@
+package kdaniel.customers.config;
+
+import kdaniel.customers.model.Role;
+import kdaniel.customers.model.UserPrincipal;
+import kdaniel.customers.service.JWTService;
+import kdaniel.customers.util.TokenFailureLog;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtPreValidatorTest {
+
+    private static final String SECRET =
+            "33cc31f9a5eaa0402816925ceadfed4eeb19d900e5f55232253158ecd2cf865132e4566adccf4cf8202661088e8b8eed";
+    private static final String SIGNATURE = "A".repeat(43);
+
+    @Test
+    void testAcceptsIssuedToken() {
+        // Arrange: A token issued by JWTService
+        String token = new JWTService(SECRET, 3600000L).generateToken(new UserPrincipal("testuser", new Role(1L, "USER")));
+
+        // Act & Assert: It passes the pre-validation
+        assertNull(JwtPreValidator.check(token));
+    }
+
+    @Test
+    void testAcceptsOtherHs256Header() {
+        // Arrange: A header with a typ claim and whitespace, still HS256
+        String header = encode("{\"typ\":\"JWT\", \"alg\": \"HS256\"}");
+
+        // Act & Assert: It passes the pre-validation
+        assertNull(JwtPreValidator.check(header + ".eyJzdWIiOiJ0ZXN0dXNlciJ9." + SIGNATURE));
+    }
+
+    @Test
+    void testRejectsMalformedShapes() {
+        // Act & Assert: Length, segment count and alphabet are enforced
+        assertEquals(TokenFailureLog.Reason.MALFORMED, JwtPreValidator.check("invalid.jwt.token"));
+        assertEquals(TokenFailureLog.Reason.MALFORMED, JwtPreValidator.check("eyJhbGciOiJIUzI1NiJ9" + "x".repeat(100)));
+        assertEquals(TokenFailureLog.Reason.MALFORMED,
+                JwtPreValidator.check("eyJhbGciOiJIUzI1NiJ9.eyJzdWIi.OiJ0ZXN0dXNlciJ9." + SIGNATURE));
+        assertEquals(TokenFailureLog.Reason.MALFORMED,
+                JwtPreValidator.check("eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ0Z+N0dXNlciJ9." + SIGNATURE));
+        assertEquals(TokenFailureLog.Reason.MALFORMED,
+                JwtPreValidator.check("eyJhbGciOiJIUzI1NiJ9." + "a".repeat(5000) + "." + SIGNATURE));
+    }
+
+    @Test
+    void testRejectsOtherAlgorithms() {
+        // Arrange: An unsigned token and an HS512-sized signature
+        String none = encode("{\"alg\":\"none\"}") + ".eyJzdWIiOiJ0ZXN0dXNlciJ9." + SIGNATURE;
+        String hs512 = "eyJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJ0ZXN0dXNlciJ9." + "A".repeat(86);
+
+        // Act & Assert: Both are unsupported
+        assertEquals(TokenFailureLog.Reason.UNSUPPORTED, JwtPreValidator.check(none));
+        assertEquals(TokenFailureLog.Reason.UNSUPPORTED, JwtPreValidator.check(hs512));
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
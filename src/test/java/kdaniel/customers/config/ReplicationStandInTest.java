@@ -0,0 +1,81 @@
+package kdaniel.customers.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationStandInTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaLagMonitor lagMonitor;
+    private ReplicationStandIn standIn;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+        Flyway.configure().dataSource(primary).locations("classpath:db/migration").load().migrate();
+        lagMonitor = new ReplicaLagMonitor(new SimpleMeterRegistry());
+        standIn = new ReplicationStandIn(primary, replica, lagMonitor);
+    }
+
+    @Test
+    void testCopiesPrimaryWritesToReplica() {
+        // Arrange: A customer written to the primary only
+        new JdbcTemplate(primary).update("INSERT INTO customer (username, normalized_username, password, full_name, email, normalized_email, age, role_id) "
+                + "VALUES ('new', 'new', 'x', 'New Customer', 'new@example.hu', 'new@example.hu', 30, 1)");
+
+        // Act: Replicate
+        standIn.replicate();
+
+        // Assert: The replica has it and the lag is fresh
+        Integer count = new JdbcTemplate(replica).queryForObject(
+                "SELECT COUNT(*) FROM customer WHERE normalized_username = 'new'", Integer.class);
+        assertEquals(1, count);
+        assertTrue(lagMonitor.lag().compareTo(Duration.ofSeconds(5)) < 0);
+    }
+
+    @Test
+    void testReadOnlyConnectionsFollowTheLag() throws Exception {
+        // Arrange: Primary and replica told apart by a marker row only the primary has
+        new JdbcTemplate(primary).update("INSERT INTO role (name) VALUES ('PRIMARY_ONLY')");
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(new ReplicaRoutingDataSource(
+                primary, replica, lagMonitor, Duration.ofSeconds(2), new SimpleMeterRegistry()));
+
+        // Act & Assert: Before the first sync the replica is too far behind, reads stay on the primary
+        assertTrue(seesMarker(routing, true));
+
+        // Act & Assert: Once the replica reports fresh data, reads go to it and writes still to the primary
+        lagMonitor.replicated(Instant.now());
+        assertFalse(seesMarker(routing, true));
+        assertTrue(seesMarker(routing, false));
+    }
+
+    private static boolean seesMarker(DataSource dataSource, boolean readOnly) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(readOnly);
+            try (var rs = connection.createStatement().executeQuery("SELECT COUNT(*) FROM role WHERE name = 'PRIMARY_ONLY'")) {
+                rs.next();
+                return rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,71 @@
+package kdaniel.customers.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class StatementTimingDataSourceTest {
+
+    private SimpleMeterRegistry registry;
+    private StatementTimingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> mock(PreparedStatement.class));
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(connection);
+
+        registry = new SimpleMeterRegistry();
+        dataSource = new StatementTimingDataSource(target, registry, Duration.ofHours(1));
+    }
+
+    @Test
+    void testFormattingVariantsShareOneTimer() throws Exception {
+        // Act: The same query with different whitespace
+        execute("SELECT c FROM customer c WHERE c.id = ?");
+        execute("  SELECT c\n  FROM customer c\n  WHERE c.id = ?\n");
+
+        // Assert: One timer, tagged with the normalized SQL, counting both
+        assertEquals(2, registry.get("customers.jdbc.statements")
+                .tag("query", "SELECT c FROM customer c WHERE c.id = ?").timer().count());
+    }
+
+    @Test
+    void testTimersStopGrowingAtTheCap() throws Exception {
+        // Act: Far more distinct queries than the cap
+        for (int i = 0; i < 1000; i++) {
+            execute("SELECT " + i + " FROM customer");
+        }
+
+        // Assert: 256 query timers plus "other", which counts the rest
+        assertEquals(257, registry.find("customers.jdbc.statements").timers().size());
+        assertEquals(1000 - 256, registry.get("customers.jdbc.statements").tag("query", "other").timer().count());
+    }
+
+    @Test
+    void testNormalizeKeepsNormalizedStrings() {
+        // Arrange
+        String sql = "SELECT 1 FROM customer";
+
+        // Act & Assert: Already normalized input is returned as is, the rest collapsed and trimmed
+        assertSame(sql, StatementTimingDataSource.normalize(sql));
+        assertEquals("SELECT 1 FROM customer", StatementTimingDataSource.normalize("\tSELECT  1\nFROM customer "));
+    }
+
+    private void execute(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.executeQuery();
+        }
+    }
+}
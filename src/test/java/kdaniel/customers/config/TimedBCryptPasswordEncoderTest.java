@@ -0,0 +1,34 @@
+package kdaniel.customers.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimedBCryptPasswordEncoderTest {
+
+    private SimpleMeterRegistry registry;
+    private TimedBCryptPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        encoder = new TimedBCryptPasswordEncoder(registry);
+    }
+
+    @Test
+    void testEncodeAndMatchAreTimed() {
+        // Act: Encode a password and verify it twice
+        String encoded = encoder.encode("password123");
+        assertTrue(encoder.matches("password123", encoded));
+        assertFalse(encoder.matches("wrong", encoded));
+
+        // Assert: One encode and two matches were recorded
+        Timer encode = registry.get("customers.bcrypt").tag("operation", "encode").timer();
+        Timer match = registry.get("customers.bcrypt").tag("operation", "match").timer();
+        assertEquals(1, encode.count());
+        assertEquals(2, match.count());
+    }
+}
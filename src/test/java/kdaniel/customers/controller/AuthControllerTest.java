@@ -10,6 +10,8 @@ import kdaniel.customers.model.Role;
 import kdaniel.customers.model.UserPrincipal;
 import kdaniel.customers.service.CustomerService;
 import kdaniel.customers.service.JWTService;
+import kdaniel.customers.service.LoginRateLimiter;
+import kdaniel.customers.util.RateLimitExceededException;
 import kdaniel.customers.util.FieldValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,8 +30,13 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = AuthController.class)
@@ -45,6 +52,9 @@ public class AuthControllerTest {
     @MockitoBean
     JWTService jwtService;
 
+    @MockitoBean
+    LoginRateLimiter loginRateLimiter;
+
     RegisterDTO registerDTO;
     LoginDTO loginDTO;
 
@@ -109,4 +119,47 @@ public class AuthControllerTest {
                 .andDo(print())
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void shouldReturnTooManyRequests_onLogin_givenRateLimitExceeded() throws Exception {
+        doThrow(new RateLimitExceededException(LoginRateLimiter.USERNAME, 42))
+                .when(loginRateLimiter).checkLogin(anyString(), anyString());
+
+        mockMvc.perform( MockMvcRequestBuilders
+                        .post(LOGIN_URL)
+                        .content(new ObjectMapper().writeValueAsString(loginDTO))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "42"));
+
+        verify(customerService, never()).validateUserAndReturnToken(any());
+    }
+
+    @Test
+    void shouldRevokeToken_onLogout_givenBearerToken() throws Exception {
+        mockMvc.perform( MockMvcRequestBuilders
+                        .post("/auth/logout")
+                        .header("Authorization", "Bearer token"))
+                .andDo(print())
+                .andExpect(status().isNoContent());
+
+        verify(customerService).logout("token");
+    }
+
+    @Test
+    void shouldReturnBadRequest_onLogout_givenNoBearerToken() throws Exception {
+        mockMvc.perform( MockMvcRequestBuilders
+                        .post("/auth/logout")
+                        .header("Authorization", "Basic dXNlcjpwYXNz"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform( MockMvcRequestBuilders
+                        .post("/auth/logout"))
+                .andExpect(status().isBadRequest());
+
+        verify(customerService, never()).logout(anyString());
+    }
 }
@@ -0,0 +1,137 @@
+package kdaniel.customers.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kdaniel.customers.dto.customer.EditCustomerDTO;
+import kdaniel.customers.model.Customer;
+import kdaniel.customers.model.Role;
+import kdaniel.customers.model.UserPrincipal;
+import kdaniel.customers.repository.CustomerRepository;
+import kdaniel.customers.repository.RoleRepository;
+import kdaniel.customers.service.JWTService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The /customer and actuator rules with the whole filter chain in place: real JWTs, JwtFilter and AdminAuthorizationManager.
+// Metrics export is off in tests by default; it is switched on so that /actuator/prometheus exists.
+@SpringBootTest
+@AutoConfigureObservability(tracing = false)
+@AutoConfigureMockMvc
+class CustomerAuthorizationTest {
+
+    private static final String BASE_URL = "/customer";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    RoleRepository roleRepository;
+
+    @Autowired
+    JWTService jwtService;
+
+    @Autowired
+    ModelMapper modelMapper;
+
+    private String userToken;
+    private String adminToken;
+    private Customer target;
+
+    @BeforeEach
+    void setUp() {
+        String prefix = UUID.randomUUID().toString().substring(0, 8);
+        userToken = token(save(prefix + "user", roleRepository.findByName("USER").orElseThrow()));
+        adminToken = token(save(prefix + "admin", roleRepository.findByName(UserPrincipal.ADMIN_ROLE).orElseThrow()));
+        target = save(prefix + "target", roleRepository.findByName("USER").orElseThrow());
+    }
+
+    @Test
+    void shouldReturnForbidden_onCustomerEndpoints_givenUserToken() throws Exception {
+        mockMvc.perform(authorized(get(BASE_URL + "/" + target.getId()), userToken))
+                .andDo(print())
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(authorized(put(BASE_URL), userToken)
+                        .content(editBody())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(authorized(delete(BASE_URL + "/" + target.getId()), userToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void shouldReturnOk_onCustomerEndpoints_givenAdminToken() throws Exception {
+        mockMvc.perform(authorized(get(BASE_URL + "/" + target.getId()), adminToken))
+                .andDo(print())
+                .andExpect(status().isOk());
+
+        mockMvc.perform(authorized(put(BASE_URL), adminToken)
+                        .content(editBody())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(authorized(delete(BASE_URL + "/" + target.getId()), adminToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldRequireAdmin_onPrometheusEndpoint_butNotOnHealth() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(authorized(get("/actuator/prometheus"), userToken))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(authorized(get("/actuator/prometheus"), adminToken).accept(MediaType.TEXT_PLAIN))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    private Customer save(String username, Role role) {
+        return customerRepository.save(Customer.builder()
+                .username(username)
+                .password("password")
+                .fullName("Authorization " + username)
+                .email(username + "@example.hu")
+                .age((byte) 30)
+                .role(role)
+                .build());
+    }
+
+    private String token(Customer customer) {
+        return jwtService.generateToken(new UserPrincipal(customer.getUsername(), customer.getRole()));
+    }
+
+    private String editBody() throws Exception {
+        EditCustomerDTO edit = modelMapper.map(target, EditCustomerDTO.class);
+        edit.setId(target.getId());
+        edit.setFullName("Edited " + target.getUsername());
+        return new ObjectMapper().writeValueAsString(edit);
+    }
+
+    private static MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request, String token) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token).accept(MediaType.APPLICATION_JSON);
+    }
+}
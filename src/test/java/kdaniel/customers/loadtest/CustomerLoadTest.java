@@ -0,0 +1,209 @@
+package kdaniel.customers.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kdaniel.customers.model.Customer;
+import kdaniel.customers.model.Role;
+import kdaniel.customers.repository.CustomerRepository;
+import kdaniel.customers.repository.RoleRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description End-to-end load test against the application booted on the in-memory H2.
+ * Seeds N synthetic customers, then drives login, list, averageAge, between18And40, edit and delete
+ * at fixed arrival rates and reports p50/p99/p999 latency and throughput per endpoint.
+ * Excluded from the normal build; run it with: ./mvnw -Ploadtest test
+ * All knobs are system properties, e.g. -Dloadtest.customers=50000 -Dloadtest.rate.list=400
+ */
+@Tag("loadtest")
+// All traffic comes from one address, so the login rate limiter would reject most of it
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "login.rate-limit.enabled=false")
+class CustomerLoadTest {
+
+    private static final String PASSWORD = "password";
+    private static final String ADMIN_USERNAME = "loadtest.admin";
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    RoleRepository roleRepository;
+
+    @Autowired
+    BCryptPasswordEncoder encoder;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void mixedWorkload() throws Exception {
+        int customers = Integer.getInteger("loadtest.customers", 10_000);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+        double deleteRate = rate("delete", 5);
+        int victims = (int) Math.ceil(deleteRate * (warmup.toSeconds() + duration.toSeconds())) + 1;
+
+        // Arrange: Seed the customers to read/edit and a separate pool to delete
+        List<Long> ids = seed("load", customers);
+        ConcurrentLinkedQueue<Long> deletable = new ConcurrentLinkedQueue<>(seed("victim", victims));
+        seedAdmin();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(Integer.getInteger("loadtest.clientThreads", 16)))
+                .build();
+        String adminToken = login(client, ADMIN_USERNAME);
+        String userToken = login(client, "load0");
+
+        List<LoadGenerator.Scenario> scenarios = List.of(
+                new LoadGenerator.Scenario("login", rate("login", 20), () ->
+                        post("/auth/login", loginBody("load" + ThreadLocalRandom.current().nextInt(customers)))),
+                new LoadGenerator.Scenario("list", rate("list", 100), () ->
+                        get("/customer?size=10&page=" + ThreadLocalRandom.current().nextInt(Math.max(1, customers / 10)), adminToken)),
+                new LoadGenerator.Scenario("averageAge", rate("averageAge", 20), () ->
+                        get("/customer/averageAge", userToken)),
+                new LoadGenerator.Scenario("between18And40", rate("between18And40", 5), () ->
+                        get("/customer/between18And40", userToken)),
+                new LoadGenerator.Scenario("edit", rate("edit", 10), () ->
+                        put("/customer", editBody(ids.get(ThreadLocalRandom.current().nextInt(ids.size()))), adminToken)),
+                new LoadGenerator.Scenario("delete", deleteRate, () -> {
+                    Long id = deletable.poll();
+                    return id == null ? null : delete("/customer/" + id, adminToken);
+                }));
+
+        LoadGenerator generator = new LoadGenerator(client, Integer.getInteger("loadtest.maxInFlight", 2048));
+
+        // Act: Warm up, then measure
+        generator.run(scenarios, warmup);
+        List<LoadGenerator.Result> results = generator.run(scenarios, duration);
+
+        // Assert: Report, and fail only on functional errors, never on latency or shed load
+        report(results);
+        for (LoadGenerator.Result result : results) {
+            assertEquals(0, result.errors(), result.name() + " returned errors under load");
+        }
+    }
+
+    private List<Long> seed(String prefix, int count) {
+        Role role = roleRepository.findByName("USER").orElseThrow();
+        String hash = encoder.encode(PASSWORD);
+        List<Long> ids = new ArrayList<>(count);
+        List<Customer> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            batch.add(Customer.builder()
+                    .username(prefix + i)
+                    .password(hash)
+                    .fullName("Load Test " + prefix + " " + i)
+                    .email(prefix + i + "@loadtest.example")
+                    .age((byte) (10 + i % 60))
+                    .role(role)
+                    .build());
+            if (batch.size() == 1000 || i == count - 1) {
+                customerRepository.saveAll(batch).forEach(customer -> ids.add(customer.getId()));
+                batch.clear();
+            }
+        }
+        return ids;
+    }
+
+    private void seedAdmin() {
+        Role admin = roleRepository.findByName("ADMIN").orElseThrow();
+        customerRepository.save(Customer.builder()
+                .username(ADMIN_USERNAME)
+                .password(encoder.encode(PASSWORD))
+                .fullName("Load Test Admin")
+                .email("admin@loadtest.example")
+                .age((byte) 40)
+                .role(admin)
+                .build());
+    }
+
+    private String login(HttpClient client, String username) throws Exception {
+        HttpResponse<String> response = client.send(post("/auth/login", loginBody(username)), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "login failed for " + username);
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.path("data").path("token").asText();
+    }
+
+    private void report(List<LoadGenerator.Result> results) throws Exception {
+        System.out.printf("%n%-16s %8s %8s %7s %7s %7s %10s %9s %9s %9s %9s%n",
+                "endpoint", "sent", "done", "errors", "shed", "dropped", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (LoadGenerator.Result r : results) {
+            System.out.printf("%-16s %8d %8d %7d %7d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    r.name(), r.sent(), r.completed(), r.errors(), r.shed(), r.dropped(),
+                    r.throughputPerSecond(), r.p50Ms(), r.p99Ms(), r.p999Ms(), r.maxMs());
+        }
+
+        Path file = Path.of("target", "loadtest-report.json");
+        Files.createDirectories(file.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), results);
+    }
+
+    private static double rate(String scenario, double defaultRate) {
+        return Double.parseDouble(System.getProperty("loadtest.rate." + scenario, String.valueOf(defaultRate)));
+    }
+
+    private static String loginBody(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private static String editBody(Long id) {
+        int age = 18 + ThreadLocalRandom.current().nextInt(50);
+        return "{\"id\":" + id + ",\"fullName\":\"Edited " + id + "\",\"password\":\"" + PASSWORD + "\",\"age\":" + age + "}";
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest delete(String path, String token) {
+        return request(path, token).DELETE().build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return request(path, null)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest put(String path, String body, String token) {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,156 @@
+package kdaniel.customers.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Open-model HTTP load generator.
+ * Every scenario fires requests at a fixed arrival rate regardless of how fast the server answers,
+ * and latency is measured from the intended send time, so a stalled server shows up in the tail
+ * instead of silently lowering the request rate (no coordinated omission).
+ */
+final class LoadGenerator {
+
+    /**
+     * A named request stream. The supplier may return null to skip a tick (e.g. nothing left to delete).
+     */
+    record Scenario(String name, double ratePerSecond, Supplier<HttpRequest> request) {
+    }
+
+    record Result(String name, long sent, long completed, long errors, long shed, long dropped,
+                  double throughputPerSecond, double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+
+    private final HttpClient client;
+    private final int maxInFlight;
+
+    LoadGenerator(HttpClient client, int maxInFlight) {
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Runs all scenarios concurrently for the given duration and waits for in-flight requests to finish.
+     */
+    List<Result> run(List<Scenario> scenarios, Duration duration) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+        long end = start + duration.toNanos();
+
+        List<ScenarioRun> runs = new ArrayList<>();
+        List<Thread> drivers = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            ScenarioRun run = new ScenarioRun(scenario, duration, inFlight);
+            runs.add(run);
+            Thread driver = new Thread(() -> run.drive(start, end), "load-" + scenario.name());
+            driver.start();
+            drivers.add(driver);
+        }
+        for (Thread driver : drivers) {
+            driver.join();
+        }
+
+        // Drain: every outstanding request holds a permit
+        if (inFlight.tryAcquire(maxInFlight, 30, TimeUnit.SECONDS)) {
+            inFlight.release(maxInFlight);
+        }
+
+        double seconds = duration.toNanos() / 1e9;
+        return runs.stream().map(run -> run.result(seconds)).toList();
+    }
+
+    private final class ScenarioRun {
+
+        private final Scenario scenario;
+        private final Semaphore inFlight;
+        private final long[] latencies;
+        private final AtomicInteger recorded = new AtomicInteger();
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        ScenarioRun(Scenario scenario, Duration duration, Semaphore inFlight) {
+            this.scenario = scenario;
+            this.inFlight = inFlight;
+            this.latencies = new long[(int) Math.ceil(scenario.ratePerSecond() * duration.toNanos() / 1e9) + 1];
+        }
+
+        void drive(long start, long end) {
+            // A zero rate switches the scenario off, e.g. write endpoints the reactive stack does not serve
+            if (scenario.ratePerSecond() <= 0) {
+                return;
+            }
+            long interval = (long) (1e9 / scenario.ratePerSecond());
+            for (long intended = start; intended < end; intended += interval) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                HttpRequest request = scenario.request().get();
+                if (request == null) {
+                    continue;
+                }
+                sent.increment();
+                if (!inFlight.tryAcquire()) {
+                    dropped.increment();
+                    continue;
+                }
+
+                long intendedStart = intended;
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> {
+                            record(System.nanoTime() - intendedStart);
+                            completed.increment();
+                            if (error == null && response.statusCode() == 503) {
+                                // Load shedding by admission control, not a functional error
+                                shed.increment();
+                            } else if (error != null || response.statusCode() >= 400) {
+                                errors.increment();
+                            }
+                            inFlight.release();
+                        });
+            }
+        }
+
+        private void record(long latencyNanos) {
+            int i = recorded.getAndIncrement();
+            if (i < latencies.length) {
+                latencies[i] = latencyNanos;
+            }
+        }
+
+        Result result(double seconds) {
+            int n = Math.min(recorded.get(), latencies.length);
+            long[] sorted = Arrays.copyOf(latencies, n);
+            Arrays.sort(sorted);
+            return new Result(scenario.name(), sent.sum(), completed.sum(), errors.sum(), shed.sum(), dropped.sum(),
+                    completed.sum() / seconds,
+                    percentileMs(sorted, 0.50), percentileMs(sorted, 0.99), percentileMs(sorted, 0.999),
+                    n == 0 ? 0 : sorted[n - 1] / 1e6);
+        }
+
+        private double percentileMs(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.util.Collection;
+import java.util.List;
 
 class UserPrincipalTest {
 
@@ -39,6 +40,49 @@ class UserPrincipalTest {
         assertTrue(authorities.contains(new SimpleGrantedAuthority("ROLE_USER")));
     }
 
+    @Test
+    void testGetAuthoritiesIsSharedPerRole() {
+        // Arrange: Two principals of the same role, built from different Role instances
+        UserPrincipal other = new UserPrincipal("otheruser", new Role(1L, "USER"));
+
+        // Act: Get authorities from both principals
+        Collection<? extends GrantedAuthority> first = userPrincipal.getAuthorities();
+        Collection<? extends GrantedAuthority> second = other.getAuthorities();
+
+        // Assert: The very same immutable list is returned, no allocation per call
+        assertSame(first, second);
+        assertSame(first, userPrincipal.getAuthorities());
+        assertThrows(UnsupportedOperationException.class, () -> first.clear());
+    }
+
+    @Test
+    void testGetAuthoritiesHonoursConstructorAuthorities() {
+        // Arrange: A principal with explicitly supplied authorities
+        UserPrincipal principal = new UserPrincipal("testuser",
+                List.of(new SimpleGrantedAuthority("ROLE_AUDITOR")), new Role(1L, "USER"));
+
+        // Act: Get authorities
+        Collection<? extends GrantedAuthority> authorities = principal.getAuthorities();
+
+        // Assert: The supplied authorities win over the role
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_AUDITOR")), authorities);
+    }
+
+    @Test
+    void testIsAdminFollowsAuthorities() {
+        // Arrange: An ADMIN role with explicit USER authorities, and the other way round
+        UserPrincipal demoted = new UserPrincipal("testuser",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), new Role(2L, "ADMIN"));
+        UserPrincipal promoted = new UserPrincipal("testuser",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), new Role(1L, "USER"));
+
+        // Act & Assert: The authorities decide, the same way Spring Security sees them
+        assertFalse(demoted.isAdmin());
+        assertTrue(promoted.isAdmin());
+        assertTrue(new UserPrincipal("admin", new Role(2L, "ADMIN")).isAdmin());
+        assertFalse(userPrincipal.isAdmin());
+    }
+
     @Test
     void testGetPassword() {
         // Act: Get password from userPrincipal
@@ -0,0 +1,113 @@
+package kdaniel.customers.repository;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import kdaniel.customers.model.Customer;
+import kdaniel.customers.model.Role;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CustomerRepositoryCacheTest {
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    RoleRepository roleRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testRepeatedUsernameLookupIsServedFromCache() {
+        // Arrange: Fresh statistics and a first lookup that populates the cache
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Optional<Customer> first = customerRepository.findByUsername("jhorvath");
+        long loadsAfterFirst = customerLoads(statistics);
+        long resolutionsAfterFirst = naturalIdResolutions(statistics);
+
+        // Act: Look the same customer up again, with different case
+        Optional<Customer> second = customerRepository.findByUsername("JHorvath");
+
+        // Assert: Same customer, neither resolved nor loaded from the database again, answered by the natural-id cache
+        assertTrue(first.isPresent());
+        assertEquals(first.get().getId(), second.orElseThrow().getId());
+        assertEquals(loadsAfterFirst, customerLoads(statistics));
+        assertEquals(resolutionsAfterFirst, naturalIdResolutions(statistics));
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+    }
+
+    @Test
+    void testRepeatedLoginLookupRunsNoStatement() {
+        // Arrange: A first login lookup that fills the natural-id, Customer and Role caches
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        customerRepository.findCachedWithRoleByUsername("jhorvath").orElseThrow();
+        statistics.clear();
+
+        // Act: Log in again, outside any transaction
+        Customer customer = customerRepository.findCachedWithRoleByUsername("JHorvath").orElseThrow();
+
+        // Assert: The customer and its initialized role came from the caches alone. The statistics are shared
+        // with the scheduled jobs, so database work is counted per entity rather than as a statement total.
+        assertNotNull(customer.getRole().getName());
+        assertEquals(0, customerLoads(statistics));
+        assertEquals(0, naturalIdResolutions(statistics));
+        assertEquals(0, statistics.getEntityStatistics(Role.class.getName()).getLoadCount());
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+    }
+
+    @Test
+    void testRoleByNameUsesQueryCache() {
+        // Arrange: An empty query cache (other tests may have cached the lookup already) and fresh statistics
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictDefaultQueryRegion();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        // Act: Look up the same role twice
+        roleRepository.findByName("USER");
+        roleRepository.findByName("USER");
+
+        // Assert: The first lookup misses and fills the query cache, the second is answered by it
+        assertEquals(1, statistics.getQueryCacheMissCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    @Transactional(readOnly = true)
+    void testStreamingDoesNotFillTheEntityCache() {
+        // Arrange: An empty entity cache
+        Cache cache = entityManagerFactory.getCache();
+        cache.evict(Customer.class);
+
+        // Act: Stream every customer, as the read-only average-age call does
+        List<Long> ids;
+        try (Stream<Customer> customers = customerRepository.streamAllCustomers()) {
+            ids = customers.map(Customer::getId).toList();
+        }
+
+        // Assert: Nothing the stream loaded was put into the second-level cache
+        assertFalse(ids.isEmpty());
+        ids.forEach(id -> assertFalse(cache.contains(Customer.class, id)));
+    }
+
+    private static long customerLoads(Statistics statistics) {
+        return statistics.getEntityStatistics(Customer.class.getName()).getLoadCount();
+    }
+
+    private static long naturalIdResolutions(Statistics statistics) {
+        return statistics.getNaturalIdStatistics(Customer.class.getName()).getExecutionCount();
+    }
+}
@@ -0,0 +1,118 @@
+package kdaniel.customers.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import kdaniel.customers.config.StatementCounter;
+import kdaniel.customers.model.Customer;
+import kdaniel.customers.model.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @Author Kiszel Dániel
+ * @Date 2026-10-19
+ * @Description Guards the CustomerRepository paths against N+1 selects: each one must run a fixed
+ * number of statements however many customers it returns. The second-level cache is emptied first,
+ * so the counts are the cold (worst) case.
+ */
+@SpringBootTest
+class CustomerRepositoryStatementCountTest {
+
+    private static final int CUSTOMERS = 30;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    RoleRepository roleRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private Customer seeded;
+
+    @BeforeEach
+    void setUp() {
+        String prefix = UUID.randomUUID().toString().substring(0, 8);
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Role role = roleRepository.findByName(i % 2 == 0 ? "USER" : "ADMIN").orElseThrow();
+            customers.add(Customer.builder()
+                    .username(prefix + i)
+                    .password("password")
+                    .fullName("Statement Count " + i)
+                    .email(prefix + i + "@example.hu")
+                    .age((byte) (20 + i))
+                    .role(role)
+                    .build());
+        }
+        seeded = customerRepository.saveAll(customers).get(0);
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void testPagedListingDoesNotSelectPerRow() {
+        // Act: Load a full page
+        int statements = count(() -> assertEquals(CUSTOMERS, customerRepository.findAllCustomers(PageRequest.of(0, CUSTOMERS)).getNumberOfElements()));
+
+        // Assert: Page + count query; the lazy role is never loaded
+        assertTrue(statements <= 2, "findAllCustomers ran " + statements + " statements");
+    }
+
+    @Test
+    void testStreamDoesNotSelectPerRow() {
+        // Act: Stream every customer
+        int statements = count(() -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Customer> customers = customerRepository.streamAllCustomers()) {
+                assertTrue(customers.count() >= CUSTOMERS);
+            }
+        }));
+
+        // Assert: One query; the lazy role is never loaded
+        assertTrue(statements <= 1, "streamAllCustomers ran " + statements + " statements");
+    }
+
+    @Test
+    void testSingleCustomerLookups() {
+        // Act: Look one customer up by id and by username
+        int byId = count(() -> assertTrue(customerRepository.findCustomerById(seeded.getId()).isPresent()));
+        entityManagerFactory.getCache().evictAll();
+        int byUsername = count(() -> assertTrue(customerRepository.findByUsername(seeded.getUsername()).isPresent()));
+
+        // Assert: A bounded number of statements each
+        assertTrue(byId <= 1, "findCustomerById ran " + byId + " statements");
+        assertTrue(byUsername <= 2, "findByUsername ran " + byUsername + " statements");
+    }
+
+    @Test
+    void testEntityGraphLookupsFetchRoleInOneSelect() {
+        // Act: Load the customer with its role and read the role name, by id and by username
+        int byId = count(() -> assertNotNull(customerRepository.findWithRoleById(seeded.getId()).orElseThrow().getRole().getName()));
+        entityManagerFactory.getCache().evictAll();
+        int byUsername = count(() -> assertNotNull(customerRepository.findWithRoleByUsername(seeded.getUsername()).orElseThrow().getRole().getName()));
+
+        // Assert: The role comes with the customer, outside any transaction and without a second select
+        assertEquals(1, byId, "findWithRoleById ran " + byId + " statements");
+        assertEquals(1, byUsername, "findWithRoleByUsername ran " + byUsername + " statements");
+    }
+
+    private static int count(Runnable action) {
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            action.run();
+            return scope.count();
+        }
+    }
+}
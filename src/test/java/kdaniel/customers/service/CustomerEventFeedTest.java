@@ -0,0 +1,92 @@
+package kdaniel.customers.service;
+
+import kdaniel.customers.dto.customer.CustomerEventDTO;
+import kdaniel.customers.model.CustomerEvent;
+import kdaniel.customers.repository.CustomerEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CustomerEventFeedTest {
+
+    private CustomerEventRepository repository;
+    private CustomerEventFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CustomerEventRepository.class);
+        feed = new CustomerEventFeed(repository, 2);
+        feed.load();
+    }
+
+    @Test
+    void testPollWaitsForTheNextBatch() {
+        // Arrange: A consumer that has seen everything
+        CompletableFuture<List<CustomerEventDTO>> waiting = feed.poll(0, 10);
+        assertFalse(waiting.isDone());
+
+        // Act: The relay delivers a batch
+        feed.publish(List.of(event(1), event(2)));
+
+        // Assert: The poll completes with it
+        assertEquals(List.of(1L, 2L), offsets(waiting.getNow(List.of())));
+    }
+
+    @Test
+    void testTailingReadsComeFromMemory() {
+        // Arrange
+        feed.publish(List.of(event(1), event(2), event(3)));
+
+        // Act: Read from inside the buffer, which holds the last two events
+        List<CustomerEventDTO> events = feed.read(1, 10);
+
+        // Assert: No query
+        assertEquals(List.of(2L, 3L), offsets(events));
+        verify(repository, never()).findDeliveredAfter(anyLong(), any());
+    }
+
+    @Test
+    void testReadsBehindTheBufferGoToTheTable() {
+        // Arrange: Offset 1 has already left the two-event buffer
+        feed.publish(List.of(event(1), event(2), event(3)));
+        CustomerEvent stored = CustomerEvent.builder().eventOffset(1L).customerId(1L).type(CustomerEvent.Type.REGISTERED)
+                .occurredAt(Instant.now()).build();
+        when(repository.findDeliveredAfter(eq(0L), any())).thenReturn(List.of(stored));
+
+        // Act
+        List<CustomerEventDTO> events = feed.read(0, 1);
+
+        // Assert
+        assertEquals(List.of(1L), offsets(events));
+    }
+
+    @Test
+    void testCancelledPollStopsWaiting() {
+        // Arrange: A long-poll that timed out
+        CompletableFuture<List<CustomerEventDTO>> waiting = feed.poll(0, 10);
+        waiting.cancel(false);
+
+        // Act
+        feed.publish(List.of(event(1)));
+
+        // Assert: Nothing completes it afterwards
+        assertTrue(waiting.isCancelled());
+    }
+
+    private static CustomerEventDTO event(long offset) {
+        return new CustomerEventDTO(offset, offset, CustomerEvent.Type.UPDATED, "user" + offset, "User " + offset,
+                "user" + offset + "@example.hu", (byte) 30, Instant.now());
+    }
+
+    private static List<Long> offsets(List<CustomerEventDTO> events) {
+        return events.stream().map(CustomerEventDTO::getOffset).toList();
+    }
+}
@@ -0,0 +1,126 @@
+package kdaniel.customers.service;
+
+import kdaniel.customers.dto.auth.RegisterDTO;
+import kdaniel.customers.dto.auth.RoleDTO;
+import kdaniel.customers.dto.customer.CustomerEventDTO;
+import kdaniel.customers.dto.customer.EditCustomerDTO;
+import kdaniel.customers.model.Customer;
+import kdaniel.customers.model.CustomerEvent;
+import kdaniel.customers.repository.CustomerEventRepository;
+import kdaniel.customers.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database, and no scheduled relay: nothing but the test may deliver these events
+@SpringBootTest(properties = {"customer.events.relay-interval=1h", "db.url=jdbc:h2:mem:customer-events;DB_CLOSE_DELAY=-1"})
+class CustomerEventRelayTest {
+
+    @Autowired
+    CustomerService customerService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    CustomerEventRepository customerEventRepository;
+
+    @Autowired
+    CustomerEventOutbox customerEventOutbox;
+
+    @Autowired
+    CustomerEventRelay customerEventRelay;
+
+    @Autowired
+    CustomerEventFeed customerEventFeed;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private long lastOffset;
+
+    @BeforeEach
+    void setUp() {
+        // Deliver whatever earlier tests left in the outbox
+        while (customerEventRelay.relayBatch() > 0) {
+            // Drain
+        }
+        Long last = customerEventRepository.findLastOffset();
+        lastOffset = last == null ? 0 : last;
+    }
+
+    @Test
+    void testChangesAreDeliveredInOrderWithConsecutiveOffsets() throws Exception {
+        // Arrange: Register, edit and delete a customer, with a consumer waiting for what comes next
+        String username = "evt" + UUID.randomUUID().toString().substring(0, 8);
+        CompletableFuture<List<CustomerEventDTO>> waiting = customerEventFeed.poll(lastOffset, 10);
+        customerService.validateAndSaveUser(new RegisterDTO(username, "password", "Event Customer",
+                username + "@example.hu", username + "@example.hu", (byte) 30, RoleDTO.USER));
+        Customer customer = customerRepository.findByUsername(username).orElseThrow();
+        customerService.editCustomer(new EditCustomerDTO(customer.getId(), null, "Renamed Customer", "password", null, (byte) 31, null));
+        customerService.deleteCustomer(customer.getId());
+        assertFalse(waiting.isDone(), "nothing is visible before the relay runs");
+
+        // Act: Relay
+        assertEquals(3, customerEventRelay.relayBatch());
+
+        // Assert: The waiting consumer gets the three events, in order, numbered after the last offset
+        List<CustomerEventDTO> events = waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(CustomerEvent.Type.REGISTERED, CustomerEvent.Type.UPDATED, CustomerEvent.Type.DELETED),
+                events.stream().map(CustomerEventDTO::getType).toList());
+        assertEquals(List.of(lastOffset + 1, lastOffset + 2, lastOffset + 3),
+                events.stream().map(CustomerEventDTO::getOffset).toList());
+        assertEquals("Renamed Customer", events.get(1).getFullName());
+        assertNull(events.get(2).getUsername());
+        assertTrue(events.stream().allMatch(event -> event.getCustomerId().equals(customer.getId())));
+
+        // Assert: A consumer resuming from the table sees the same stream
+        assertEquals(events.stream().map(CustomerEventDTO::getOffset).toList(),
+                customerEventRepository.findDeliveredAfter(lastOffset, Limit.of(10)).stream()
+                        .map(CustomerEvent::getEventOffset).toList());
+    }
+
+    @Test
+    void testOffsetsKeepCountingAfterEverythingExpired() throws Exception {
+        // Arrange: A delivered event, then a compaction long past its retention
+        String username = "evt" + UUID.randomUUID().toString().substring(0, 8);
+        customerService.validateAndSaveUser(new RegisterDTO(username, "password", "Quiet Customer",
+                username + "@example.hu", username + "@example.hu", (byte) 30, RoleDTO.USER));
+        assertEquals(1, customerEventRelay.relayBatch());
+        CustomerEventRelay later = new CustomerEventRelay(customerEventRepository, List.of(customerEventFeed),
+                transactionTemplate, 100, Duration.ofDays(1), Clock.offset(Clock.systemUTC(), Duration.ofDays(30)));
+        later.compact();
+
+        // Act: The next change after the quiet period
+        Customer customer = customerRepository.findByUsername(username).orElseThrow();
+        CompletableFuture<List<CustomerEventDTO>> waiting = customerEventFeed.poll(lastOffset + 1, 10);
+        customerService.deleteCustomer(customer.getId());
+        assertEquals(1, later.relayBatch());
+
+        // Assert: It continues the numbering and reaches a consumer waiting after the last offset
+        assertEquals(lastOffset + 2, customerEventRepository.findLastOffset());
+        List<CustomerEventDTO> events = waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(lastOffset + 2), events.stream().map(CustomerEventDTO::getOffset).toList());
+    }
+
+    @Test
+    void testAppendNeedsTheCallersTransaction() {
+        // Act & Assert: An event outside a transaction could describe a change that never committed
+        Customer customer = Customer.builder().id(1L).username("nobody").build();
+        assertThrows(IllegalTransactionStateException.class,
+                () -> customerEventOutbox.append(CustomerEvent.Type.UPDATED, customer));
+    }
+}
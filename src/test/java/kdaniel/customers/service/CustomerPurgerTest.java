@@ -0,0 +1,138 @@
+package kdaniel.customers.service;
+
+import kdaniel.customers.model.Customer;
+import kdaniel.customers.model.RefreshToken;
+import kdaniel.customers.model.Role;
+import kdaniel.customers.repository.CustomerRepository;
+import kdaniel.customers.repository.RefreshTokenRepository;
+import kdaniel.customers.repository.RoleRepository;
+import kdaniel.customers.util.FieldValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The scheduled purger must not run while a test counts rows
+@SpringBootTest(properties = "customer.purge.interval=1h")
+class CustomerPurgerTest {
+
+    private static final Duration GRACE_PERIOD = Duration.ofMinutes(1);
+
+    @Autowired
+    CustomerService customerService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    RoleRepository roleRepository;
+
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private List<Customer> customers;
+
+    @BeforeEach
+    void setUp() {
+        String prefix = UUID.randomUUID().toString().substring(0, 8);
+        Role role = roleRepository.findByName("USER").orElseThrow();
+        customers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            customers.add(customerRepository.save(Customer.builder()
+                    .username(prefix + i)
+                    .password("password")
+                    .fullName("Purge " + i)
+                    .email(prefix + i + "@example.hu")
+                    .age((byte) 30)
+                    .role(role)
+                    .build()));
+        }
+    }
+
+    @Test
+    void testDeletedCustomerIsHiddenButKeepsItsUsername() {
+        // Arrange
+        Customer customer = customers.get(0);
+        long listed = customerRepository.findAllCustomers(PageRequest.of(0, 1)).getTotalElements();
+
+        // Act: Soft delete
+        customerService.deleteCustomer(customer.getId());
+
+        // Assert: Gone from every read, but the row and its username remain until the purge
+        assertTrue(customerRepository.findCustomerById(customer.getId()).isEmpty());
+        assertTrue(customerRepository.findByUsername(customer.getUsername()).isEmpty());
+        assertTrue(customerRepository.findWithRoleById(customer.getId()).isEmpty());
+        assertNull(customerRepository.getCustomer(customer.getId()));
+        assertEquals(listed - 1, customerRepository.findAllCustomers(PageRequest.of(0, 1)).getTotalElements());
+        assertTrue(customerRepository.existsById(customer.getId()));
+        assertTrue(customerRepository.existsByUsername(customer.getUsername()));
+    }
+
+    @Test
+    void testDeleteRevokesRefreshTokens() {
+        // Arrange: A logged-in customer
+        Customer customer = customers.get(0);
+        String refreshToken = refreshTokenService.issue(customer.getId());
+
+        // Act: Soft delete
+        customerService.deleteCustomer(customer.getId());
+
+        // Assert: The token is gone at once, not only when the purger removes the row
+        assertTrue(refreshTokenRepository.findAll().stream()
+                .noneMatch(token -> token.getCustomerId().equals(customer.getId())));
+        assertThrows(FieldValidationException.class, () -> customerService.refreshToken(refreshToken));
+    }
+
+    @Test
+    void testPurgesInBatchesAfterTheGracePeriod() {
+        // Arrange: Three deleted customers, one with a refresh token
+        customers.forEach(customer -> customerService.deleteCustomer(customer.getId()));
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(UUID.randomUUID().toString().substring(0, 32).getBytes())
+                .customerId(customers.get(0).getId())
+                .familyId(customers.get(0).getId())
+                .expiresAt(Instant.now().plus(Duration.ofDays(1)))
+                .used(false)
+                .build());
+        CustomerPurger early = purger(Clock.systemUTC());
+        CustomerPurger late = purger(Clock.offset(Clock.system(ZoneOffset.UTC), GRACE_PERIOD.plusMinutes(1)));
+
+        // Act & Assert: Nothing within the grace period
+        assertEquals(0, early.purgeBatch());
+        assertTrue(customerRepository.existsById(customers.get(0).getId()));
+
+        // Act & Assert: Afterwards, at most one batch per call until nothing is left
+        int first = late.purgeBatch();
+        int second = late.purgeBatch();
+        assertEquals(2, first);
+        assertTrue(second >= 1);
+        while (late.purgeBatch() > 0) {
+            // Drain rows left behind by other tests
+        }
+        customers.forEach(customer -> assertFalse(customerRepository.existsById(customer.getId())));
+        assertTrue(refreshTokenRepository.findAll().stream()
+                .noneMatch(token -> token.getCustomerId().equals(customers.get(0).getId())));
+    }
+
+    private CustomerPurger purger(Clock clock) {
+        return new CustomerPurger(customerRepository, refreshTokenRepository, transactionTemplate, 2, GRACE_PERIOD, clock);
+    }
+}
@@ -0,0 +1,90 @@
+package kdaniel.customers.service;
+
+import kdaniel.customers.dto.customer.CustomerSearchDTO;
+import kdaniel.customers.model.Customer;
+import kdaniel.customers.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CustomerSearchIndexTest {
+
+    private CustomerSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        CustomerRepository repository = mock(CustomerRepository.class);
+        when(repository.streamSearchFields()).thenReturn(Stream.of(
+                new CustomerSearchDTO(1L, "jhorvath", "Horváth János", "janos.horvath@example.com"),
+                new CustomerSearchDTO(2L, "kanna", "Kovács Anna", "anna.kovacs@example.com"),
+                new CustomerSearchDTO(3L, "horvatha", "Horváth Anna", "ahorvath@test.hu")));
+        index = new CustomerSearchIndex(repository);
+        index.rebuild();
+    }
+
+    @Test
+    void testPrefixMatchesEveryField() {
+        // Act: Search a name prefix, a username and an email domain
+        List<Long> byName = ids(index.search("horv", 10));
+        List<Long> byUsername = ids(index.search("kanna", 10));
+        List<Long> byDomain = ids(index.search("test.hu", 10));
+
+        // Assert: Matches come from full name, username and email alike; the exact match ranks first
+        assertEquals(List.of(1L, 3L), byName.stream().sorted().toList());
+        assertEquals(2L, byUsername.get(0));
+        assertEquals(List.of(3L), byDomain);
+    }
+
+    @Test
+    void testEveryWordMustMatch() {
+        // Act: Search two words
+        List<Long> result = ids(index.search("anna horv", 10));
+
+        // Assert: Only the customer matching both words
+        assertEquals(List.of(3L), result);
+    }
+
+    @Test
+    void testTypoFallsBackToFuzzyMatch() {
+        // Act: Search a misspelled name with no prefix match
+        List<Long> result = ids(index.search("kovacz", 10));
+
+        // Assert: The closest term is found
+        assertEquals(List.of(2L), result);
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        // Arrange: Rename one customer and delete another
+        index.put(Customer.builder().id(2L).username("kanna").fullName("Szabó Anna").email("anna.szabo@example.com").build());
+        index.remove(1L);
+
+        // Act: Search old and new values
+        List<Long> oldName = ids(index.search("kovacs", 10));
+        List<Long> newName = ids(index.search("szabo", 10));
+        List<Long> deleted = ids(index.search("janos", 10));
+
+        // Assert: The index follows the writes
+        assertEquals(List.of(), oldName);
+        assertEquals(List.of(2L), newName);
+        assertEquals(List.of(), deleted);
+    }
+
+    @Test
+    void testLimit() {
+        // Act: Ask for fewer results than there are matches
+        List<CustomerSearchDTO> result = index.search("example", 1);
+
+        // Assert: Only one returned
+        assertEquals(1, result.size());
+    }
+
+    private static List<Long> ids(List<CustomerSearchDTO> customers) {
+        return customers.stream().map(CustomerSearchDTO::getId).toList();
+    }
+}
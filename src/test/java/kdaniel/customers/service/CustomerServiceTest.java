@@ -8,6 +8,7 @@ import kdaniel.customers.dto.customer.EditCustomerDTO;
 import kdaniel.customers.dto.auth.LoginDTO;
 import kdaniel.customers.dto.auth.RegisterDTO;
 import kdaniel.customers.model.Customer;
+import kdaniel.customers.model.CustomerEvent;
 import kdaniel.customers.model.ResponseModel;
 import kdaniel.customers.model.Role;
 import kdaniel.customers.repository.CustomerRepository;
@@ -23,6 +24,8 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.HashMap;
 import java.util.List;
@@ -48,6 +51,15 @@ class CustomerServiceTest {
     @Mock
     private BCryptPasswordEncoder encoder;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private CustomerSearchIndex searchIndex;
+
+    @Mock
+    private CustomerEventOutbox eventOutbox;
+
     @InjectMocks
     private CustomerService customerService;
 
@@ -71,7 +83,7 @@ class CustomerServiceTest {
         customer = new Customer(1L, "username", "test@example.com", "password123", (byte) 30, role);
 
         ModelMapper modelMapper = new ModelMapper();
-        customerService = new CustomerService(customerRepository, jwtService, modelMapper, new BCryptPasswordEncoder(), new CustomerValidator(customerRepository, roleRepository, encoder));
+        customerService = new CustomerService(customerRepository, jwtService, modelMapper, new BCryptPasswordEncoder(), new CustomerValidator(customerRepository, roleRepository, encoder), refreshTokenService, searchIndex, eventOutbox);
         Authentication authentication = mock(Authentication.class);
         when(authentication.getName()).thenReturn("username");
 
@@ -93,6 +105,7 @@ class CustomerServiceTest {
 
         // Assert: Verify repository methods were called and customer was saved
         verify(customerRepository).save(any(Customer.class));
+        verify(eventOutbox).append(eq(CustomerEvent.Type.REGISTERED), any(Customer.class));
     }
 
     @Test
@@ -113,7 +126,7 @@ class CustomerServiceTest {
         String encodedPassword = new BCryptPasswordEncoder().encode(password);
 
         Customer customer = new Customer(1L, "username","Full name", encodedPassword,  (byte) 30, new Role("ADMIN"));
-        when(customerRepository.findByUsername("username")).thenReturn(Optional.of(customer));
+        when(customerRepository.findCachedWithRoleByUsername("username")).thenReturn(Optional.of(customer));
         when(encoder.matches("password123", encodedPassword)).thenReturn(true);
 
         LoginDTO loginDTO = new LoginDTO("username", "password123");
@@ -126,10 +139,70 @@ class CustomerServiceTest {
         }
     }
 
+    @Test
+    void testLogin_IssuesRefreshToken() {
+        // Arrange: Valid credentials
+        when(customerRepository.findCachedWithRoleByUsername(loginDTO.getUsername())).thenReturn(Optional.of(customer));
+        when(encoder.matches(loginDTO.getPassword(), customer.getPassword())).thenReturn(true);
+        when(jwtService.generateToken(any(UserDetails.class))).thenReturn("access-token");
+        when(refreshTokenService.issue(customer.getId())).thenReturn("refresh-token");
+
+        // Act: Log in
+        TokenDTO token = customerService.validateUserAndReturnToken(loginDTO).getData();
+
+        // Assert: Both tokens are returned
+        assertEquals("access-token", token.getToken());
+        assertEquals("refresh-token", token.getRefreshToken());
+    }
+
+    @Test
+    void testRefreshToken() {
+        // Arrange: A refresh token that rotates to a new one for the customer
+        when(refreshTokenService.rotate("old-refresh"))
+                .thenReturn(new RefreshTokenService.Rotation(customer.getId(), "new-refresh"));
+        when(customerRepository.findWithRoleById(customer.getId())).thenReturn(Optional.of(customer));
+        when(jwtService.generateToken(any(UserDetails.class))).thenReturn("new-access");
+
+        // Act: Refresh
+        TokenDTO token = customerService.refreshToken("old-refresh").getData();
+
+        // Assert: New pair returned without any password check
+        assertEquals("new-access", token.getToken());
+        assertEquals("new-refresh", token.getRefreshToken());
+        verifyNoInteractions(encoder);
+    }
+
+    @Test
+    void testRefreshToken_DeletedCustomer() {
+        // Arrange: The token rotates, but its customer has been deleted
+        when(refreshTokenService.rotate("old-refresh"))
+                .thenReturn(new RefreshTokenService.Rotation(customer.getId(), "new-refresh"));
+        when(customerRepository.findWithRoleById(customer.getId())).thenReturn(Optional.empty());
+
+        // Act & Assert: Rejected, and the successor is revoked with the rest of the customer's tokens
+        assertThrows(FieldValidationException.class, () -> customerService.refreshToken("old-refresh"));
+        verify(refreshTokenService).revokeCustomer(customer.getId());
+        verify(jwtService, never()).generateToken(any(UserDetails.class));
+    }
+
+    @Test
+    void testLogout_RevokesAccessAndRefreshTokens() {
+        // Arrange: The access token belongs to the customer
+        when(jwtService.extractUsername("access-token")).thenReturn(customer.getUsername());
+        when(customerRepository.findByUsername(customer.getUsername())).thenReturn(Optional.of(customer));
+
+        // Act: Log out
+        customerService.logout("access-token");
+
+        // Assert: The access token and every refresh token of the customer are revoked
+        verify(jwtService).revokeToken("access-token");
+        verify(refreshTokenService).revokeCustomer(customer.getId());
+    }
+
     @Test
     void testLogin_Failure() {
         // Arrange: Mock failed login scenario
-        when(customerRepository.findByUsername(loginDTO.getUsername())).thenReturn(Optional.of(customer));
+        when(customerRepository.findCachedWithRoleByUsername(loginDTO.getUsername())).thenReturn(Optional.of(customer));
         when(encoder.matches(loginDTO.getPassword(), customer.getPassword())).thenReturn(false);
 
         // Act & Assert: FieldValidationException should be thrown for bad password
@@ -177,6 +250,7 @@ class CustomerServiceTest {
 
         // Mock repository és JWT service
         when(customerRepository.findCustomerById(customer.getId())).thenReturn(Optional.ofNullable(customer));
+        when(customerRepository.findWithRoleById(customer.getId())).thenReturn(Optional.ofNullable(customer));
         when(customerRepository.findCustomerByUsername(customer.getUsername())).thenReturn(Optional.ofNullable(customer));
         when(customerRepository.save(any(Customer.class))).thenReturn(customer);
         when(jwtService.generateToken(any(UserDetails.class))).thenReturn("new-jwt-token");
@@ -187,24 +261,48 @@ class CustomerServiceTest {
         // Assert: Ellenőrizzük a token generálást és a mentést
         assertEquals("new-jwt-token", result.getToken());
         verify(customerRepository).save(any(Customer.class));
+        verify(eventOutbox).append(CustomerEvent.Type.UPDATED, customer);
     }
 
     @Test
     void testDeleteCustomer() {
         // Arrange: Mock repository methods
-        when(customerRepository.existsById(customer.getId())).thenReturn(true);
+        when(customerRepository.findCustomerById(customer.getId())).thenReturn(Optional.of(customer));
 
         // Act: Call deleteCustomer method
         customerService.deleteCustomer(customer.getId());
 
-        // Assert: Verify delete operation
-        verify(customerRepository).deleteById(customer.getId());  // Verify it's called
+        // Assert: Verify it is only marked deleted; the purger removes the row later
+        assertTrue(customer.isDeleted());
+        verify(customerRepository).save(customer);
+        verify(customerRepository, never()).deleteById(any());
+        verify(refreshTokenService).revokeCustomer(customer.getId());
+        verify(searchIndex).remove(customer.getId());  // Verify it leaves the search index too
+        verify(eventOutbox).append(CustomerEvent.Type.DELETED, customer);
+    }
+
+    @Test
+    void testDeleteCustomer_LeavesSearchIndexUntilCommit() {
+        // Arrange: A transaction in progress
+        when(customerRepository.findCustomerById(customer.getId())).thenReturn(Optional.of(customer));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act: Delete inside it
+            customerService.deleteCustomer(customer.getId());
+
+            // Assert: The index changes only once the transaction commits
+            verify(searchIndex, never()).remove(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(searchIndex).remove(customer.getId());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
     void testDeleteCustomer_NotFound() {
-        // Arrange: Mock repository method to return false
-        when(customerRepository.existsById(customer.getId())).thenReturn(false);
+        // Arrange: Mock repository method to return nothing
+        when(customerRepository.findCustomerById(customer.getId())).thenReturn(Optional.empty());
 
         // Act & Assert: FieldValidationException should be thrown
         FieldValidationException exception = assertThrows(FieldValidationException.class, () -> {
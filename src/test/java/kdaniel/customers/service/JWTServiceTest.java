@@ -1,5 +1,6 @@
 package kdaniel.customers.service;
 
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.userdetails.User;
@@ -8,6 +9,9 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 class JWTServiceTest {
 
@@ -48,6 +52,19 @@ class JWTServiceTest {
         assertTrue(isValid);
     }
 
+    @Test
+    void testIsTokenValidWithParsedClaims() {
+        // Arrange: Parse the token once, as JwtFilter does
+        UserDetails userDetails = new User("testuser", "password", Collections.emptyList());
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken(userDetails));
+
+        // Act & Assert: The claims are valid for their subject only
+        assertEquals("testuser", claims.getSubject());
+        assertTrue(jwtService.isTokenValid(claims, userDetails));
+        assertFalse(jwtService.isTokenValid(claims, new User("otheruser", "password", Collections.emptyList())));
+        assertFalse(jwtService.isTokenValid((Claims) null, userDetails));
+    }
+
     @Test
     void testIsTokenExpired() throws InterruptedException {
         // Arrange: Create mock userDetails and generate token
@@ -76,4 +93,22 @@ class JWTServiceTest {
         // Assert: Ensure the extracted username matches the one in the token
         assertEquals("testuser", extractedUsername);
     }
+
+    @Test
+    void testRevokedTokenIsInvalid() {
+        // Arrange: A revocation list that remembers what it was given
+        RevocationService revocationService = mock(RevocationService.class);
+        jwtService.setRevocationService(revocationService);
+        UserDetails userDetails = new User("testuser", "password", Collections.emptyList());
+        String token = jwtService.generateToken(userDetails);
+
+        // Act: Revoke the token, then validate it
+        jwtService.revokeToken(token);
+        verify(revocationService).revoke(anyString(), any());
+        when(revocationService.isRevoked(anyString())).thenReturn(true);
+        boolean isValid = jwtService.isTokenValid(token, userDetails);
+
+        // Assert: The token carries a jti and is rejected once revoked
+        assertFalse(isValid);
+    }
 }
@@ -0,0 +1,98 @@
+package kdaniel.customers.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kdaniel.customers.util.RateLimitExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private SimpleMeterRegistry registry;
+    private AtomicLong clock;
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        clock = new AtomicLong(1_000_000_000L);
+        // 3 attempts per minute per username, 10 per minute per address
+        limiter = new LoginRateLimiter(true, 4096, 3, Duration.ofMinutes(1), 10, Duration.ofMinutes(1),
+                registry, clock::get);
+    }
+
+    @Test
+    void testRejectsUsernameAfterCapacity() {
+        // Act: Use up the username bucket, case-insensitively
+        limiter.checkLogin("testuser", "10.0.0.1");
+        limiter.checkLogin("TestUser", "10.0.0.2");
+        limiter.checkLogin("TESTUSER", "10.0.0.3");
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> limiter.checkLogin("testuser", "10.0.0.4"));
+
+        // Assert: Rejected by the username limit, retry after one refill interval, counted
+        assertEquals(LoginRateLimiter.USERNAME, ex.getLimit());
+        assertEquals(20, ex.getRetryAfterSeconds());
+        assertEquals(1.0, registry.get("customers.login.rejected").tag("limit", "username").counter().count());
+    }
+
+    @Test
+    void testRejectsAddressAcrossUsernames() {
+        // Act: Ten different usernames from the same address
+        for (int i = 0; i < 10; i++) {
+            limiter.checkLogin("user" + i, "10.0.0.1");
+        }
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> limiter.checkLogin("another", "10.0.0.1"));
+
+        // Assert: Rejected by the address limit
+        assertEquals(LoginRateLimiter.IP, ex.getLimit());
+        assertEquals(1.0, registry.get("customers.login.rejected").tag("limit", "ip").counter().count());
+    }
+
+    @Test
+    void testRefillsOverTime() {
+        // Arrange: Exhaust the username bucket
+        for (int i = 0; i < 3; i++) {
+            limiter.checkLogin("testuser", "10.0.0." + i);
+        }
+        assertThrows(RateLimitExceededException.class, () -> limiter.checkLogin("testuser", "10.0.0.9"));
+
+        // Act: Wait one refill interval
+        clock.addAndGet(Duration.ofSeconds(20).toNanos());
+
+        // Assert: Exactly one more attempt is allowed
+        assertDoesNotThrow(() -> limiter.checkLogin("testuser", "10.0.0.9"));
+        assertThrows(RateLimitExceededException.class, () -> limiter.checkLogin("testuser", "10.0.0.9"));
+    }
+
+    @Test
+    void testSuccessfulLoginResetsUsernameBucket() {
+        // Arrange: Exhaust the username bucket
+        for (int i = 0; i < 3; i++) {
+            limiter.checkLogin("testuser", "10.0.0." + i);
+        }
+
+        // Act: The user logs in successfully
+        limiter.loginSucceeded("testuser");
+
+        // Assert: The username is usable again
+        assertDoesNotThrow(() -> limiter.checkLogin("testuser", "10.0.0.9"));
+    }
+
+    @Test
+    void testDisabledLimiterAllowsEverything() {
+        // Arrange: A disabled limiter
+        LoginRateLimiter disabled = new LoginRateLimiter(false, 64, 1, Duration.ofMinutes(1), 1, Duration.ofMinutes(1),
+                registry, clock::get);
+
+        // Act & Assert: Never rejects
+        for (int i = 0; i < 100; i++) {
+            disabled.checkLogin("testuser", "10.0.0.1");
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package kdaniel.customers.service;
+
+import kdaniel.customers.model.RefreshToken;
+import kdaniel.customers.repository.RefreshTokenRepository;
+import kdaniel.customers.util.FieldValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    private RefreshTokenRepository repository;
+    private RefreshTokenService service;
+    private final List<RefreshToken> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RefreshTokenRepository.class);
+        AtomicLong ids = new AtomicLong();
+        when(repository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            token.setId(ids.incrementAndGet());
+            saved.add(token);
+            return token;
+        });
+        when(repository.markUsed(anyLong())).thenReturn(1);
+
+        Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+        service = new RefreshTokenService(repository, Duration.ofDays(14), clock);
+    }
+
+    @Test
+    void testStoresOnlyTheHash() {
+        // Act: Issue a token
+        String token = service.issue(7L);
+
+        // Assert: 32 random bytes in base64url, persisted as a 32-byte hash
+        assertEquals(43, token.length());
+        RefreshToken stored = saved.get(0);
+        assertEquals(32, stored.getTokenHash().length);
+        assertEquals(7L, stored.getCustomerId());
+        assertEquals(Instant.parse("2026-01-15T00:00:00Z"), stored.getExpiresAt());
+    }
+
+    @Test
+    void testRotateUsesIndexAndKeepsFamily() {
+        // Arrange: A token issued at login
+        String token = service.issue(7L);
+
+        // Act: Rotate it
+        RefreshTokenService.Rotation rotation = service.rotate(token);
+
+        // Assert: Served from the index, marked used, successor in the same family
+        assertEquals(7L, rotation.customerId());
+        assertNotEquals(token, rotation.refreshToken());
+        verify(repository, never()).findByTokenHash(any());
+        verify(repository).markUsed(saved.get(0).getId());
+        assertEquals(saved.get(0).getFamilyId(), saved.get(1).getFamilyId());
+    }
+
+    @Test
+    void testReuseRevokesFamily() {
+        // Arrange: A token that has already been rotated
+        String token = service.issue(7L);
+        service.rotate(token);
+        RefreshToken used = saved.get(0);
+        used.setUsed(true);
+        when(repository.findByTokenHash(any())).thenReturn(Optional.of(used));
+
+        // Act & Assert: Presenting it again fails and revokes the whole family
+        assertThrows(FieldValidationException.class, () -> service.rotate(token));
+        verify(repository).deleteByFamily(used.getFamilyId());
+    }
+
+    @Test
+    void testConcurrentRotationLosesAndRevokes() {
+        // Arrange: Another instance rotated the token first
+        String token = service.issue(7L);
+        when(repository.markUsed(anyLong())).thenReturn(0);
+
+        // Act & Assert: The late request fails and revokes the family
+        assertThrows(FieldValidationException.class, () -> service.rotate(token));
+        verify(repository).deleteByFamily(saved.get(0).getFamilyId());
+    }
+
+    @Test
+    void testUnknownTokenIsRejected() {
+        // Arrange: Nothing stored for the token
+        when(repository.findByTokenHash(any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(FieldValidationException.class, () -> service.rotate("unknown"));
+        verify(repository, never()).markUsed(anyLong());
+    }
+
+    @Test
+    void testExpiredTokenIsRejected() {
+        // Arrange: A token whose successor would be issued after expiry
+        RefreshTokenService expired = new RefreshTokenService(repository, Duration.ofDays(-1),
+                Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC));
+        String token = expired.issue(7L);
+
+        // Act & Assert
+        assertThrows(FieldValidationException.class, () -> expired.rotate(token));
+        verify(repository, never()).markUsed(anyLong());
+    }
+
+    @Test
+    void testRefreshFailsAfterLogout() {
+        // Arrange: Two sessions of the customer, one already refreshed, and one of another customer
+        String first = service.issue(7L);
+        String second = service.rotate(service.issue(7L)).refreshToken();
+        String other = service.issue(8L);
+        when(repository.findByTokenHash(any())).thenReturn(Optional.empty());
+
+        // Act: Log the customer out
+        service.revokeCustomer(7L);
+
+        // Assert: Both sessions are gone from the table and the index, the other customer is untouched
+        verify(repository).deleteByCustomerIds(List.of(7L));
+        assertThrows(FieldValidationException.class, () -> service.rotate(first));
+        assertThrows(FieldValidationException.class, () -> service.rotate(second));
+        assertEquals(8L, service.rotate(other).customerId());
+    }
+
+    @Test
+    void testSuccessorIsIndexedOnlyAfterCommit() {
+        // Arrange: A token issued inside a transaction that is still open
+        when(repository.findByTokenHash(any())).thenReturn(Optional.empty());
+        TransactionSynchronizationManager.initSynchronization();
+        String token;
+        try {
+            token = service.issue(7L);
+
+            // Act: The transaction rolls back
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert: The rolled back token never reached the index
+        assertThrows(FieldValidationException.class, () -> service.rotate(token));
+        verify(repository, never()).markUsed(anyLong());
+    }
+}
@@ -0,0 +1,138 @@
+package kdaniel.customers.service;
+
+import kdaniel.customers.model.RevokedToken;
+import kdaniel.customers.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RevocationServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private RevokedTokenRepository repository;
+    private RevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RevokedTokenRepository.class);
+        when(repository.findActiveIds(any())).thenReturn(List.of("persisted"));
+        when(repository.existsById("persisted")).thenReturn(true);
+
+        service = new RevocationService(repository, 1000, 0.01, Clock.fixed(NOW, ZoneOffset.UTC));
+        service.load();
+    }
+
+    @Test
+    void testUnrevokedTokenSkipsTheTable() {
+        // Act: Check a token that was never revoked
+        boolean revoked = service.isRevoked("never-revoked");
+
+        // Assert: The filter answers alone
+        assertFalse(revoked);
+        verify(repository, never()).existsById(anyString());
+    }
+
+    @Test
+    void testRevocationsSurviveRestart() {
+        // Act: Check a token loaded from the table at startup
+        boolean revoked = service.isRevoked("persisted");
+
+        // Assert: The filter hit is confirmed by the table
+        assertTrue(revoked);
+    }
+
+    @Test
+    void testRevokePersistsUntilExpiry() {
+        // Arrange: Revoke a live token and an already expired one
+        when(repository.existsById("live")).thenReturn(true);
+        service.revoke("live", NOW.plusSeconds(60));
+        service.revoke("expired", NOW.minusSeconds(1));
+
+        // Assert: Only the live one is stored and reported
+        verify(repository).save(argThat((RevokedToken token) -> token.getJti().equals("live")));
+        verify(repository, times(1)).save(any());
+        assertTrue(service.isRevoked("live"));
+    }
+
+    @Test
+    void testCompactionRebuildsFilterWithoutExpiredEntries() {
+        // Arrange: The persisted revocation expires and is compacted away
+        when(repository.deleteExpired(NOW)).thenReturn(1);
+        when(repository.findActiveIds(any())).thenReturn(List.of());
+
+        // Act: Compact
+        service.compact();
+
+        // Assert: The rebuilt filter no longer sends the id to the table
+        assertFalse(service.isRevoked("persisted"));
+        verify(repository, never()).existsById("persisted");
+    }
+
+    @Test
+    void testRevocationsDuringCompactionAreNeverLost() throws Exception {
+        // Arrange: A table that rebuilds read as a snapshot, and a compaction that always finds something to delete
+        Set<String> table = ConcurrentHashMap.newKeySet();
+        RevokedTokenRepository concurrent = mock(RevokedTokenRepository.class, withSettings().stubOnly());
+        when(concurrent.save(any())).thenAnswer(invocation -> {
+            table.add(invocation.<RevokedToken>getArgument(0).getJti());
+            return invocation.getArgument(0);
+        });
+        when(concurrent.findActiveIds(any())).thenAnswer(invocation -> List.copyOf(table));
+        when(concurrent.existsById(anyString())).thenAnswer(invocation -> table.contains(invocation.<String>getArgument(0)));
+        when(concurrent.deleteExpired(any())).thenReturn(1);
+        RevocationService revocations = new RevocationService(concurrent, 100_000, 0.01, Clock.fixed(NOW, ZoneOffset.UTC));
+        revocations.load();
+
+        int threads = 4;
+        int perThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        AtomicBoolean revoking = new AtomicBoolean(true);
+
+        // Act: Revoke from several threads while compaction keeps rebuilding the filter
+        Future<?> compaction = executor.submit(() -> {
+            while (revoking.get()) {
+                revocations.compact();
+            }
+        });
+        List<Future<?>> revokers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            revokers.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    revocations.revoke(thread + "-" + i, NOW.plusSeconds(60));
+                }
+            }));
+        }
+        for (Future<?> revoker : revokers) {
+            revoker.get(30, TimeUnit.SECONDS);
+        }
+        revoking.set(false);
+        compaction.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Assert: Every revoked id is still in the filter, so every one is reported as revoked
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < perThread; i++) {
+                assertTrue(revocations.isRevoked(t + "-" + i), t + "-" + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package kdaniel.customers.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenFailureLogTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testRepeatedFailuresAreSampledButCounted() {
+        // Arrange: A window long enough that the test never crosses it
+        TokenFailureLog failures = new TokenFailureLog(TokenFailureLogTest.class, Duration.ofHours(1), registry);
+
+        // Act: Record the same failure several times
+        boolean first = failures.record(TokenFailureLog.Reason.EXPIRED, "expired");
+        boolean second = failures.record(TokenFailureLog.Reason.EXPIRED, "expired");
+        boolean third = failures.record(TokenFailureLog.Reason.EXPIRED, "expired");
+
+        // Assert: Only the first one is logged, all of them are counted
+        assertTrue(first);
+        assertFalse(second);
+        assertFalse(third);
+        assertEquals(3, registry.get("customers.jwt.failures").tag("reason", "expired").counter().count());
+    }
+
+    @Test
+    void testReasonsAreSampledIndependently() {
+        TokenFailureLog failures = new TokenFailureLog(TokenFailureLogTest.class, Duration.ofHours(1), registry);
+
+        assertTrue(failures.record(TokenFailureLog.Reason.EXPIRED, "expired"));
+        assertTrue(failures.record(TokenFailureLog.Reason.MALFORMED, "malformed"));
+    }
+
+    @Test
+    void testFailureIsLoggedAgainAfterWindow() throws InterruptedException {
+        TokenFailureLog failures = new TokenFailureLog(TokenFailureLogTest.class, Duration.ofMillis(10), registry);
+
+        assertTrue(failures.record(TokenFailureLog.Reason.INVALID, "invalid"));
+        Thread.sleep(20);
+        assertTrue(failures.record(TokenFailureLog.Reason.INVALID, "invalid"));
+    }
+}